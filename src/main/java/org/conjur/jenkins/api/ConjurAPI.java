@@ -3,12 +3,16 @@ package org.conjur.jenkins.api;
 import com.cloudbees.hudson.plugins.folder.AbstractFolder;
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.model.*;
 import hudson.util.Secret;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -22,17 +26,26 @@ import org.conjur.jenkins.conjursecrets.*;
 import org.conjur.jenkins.exceptions.AuthenticationConjurException;
 import org.conjur.jenkins.exceptions.InvalidConjurSecretException;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
-import org.json.JSONArray;
 import org.json.JSONObject;
 import org.kohsuke.stapler.Stapler;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +69,12 @@ public class ConjurAPI {
 
     private static final Logger LOGGER = Logger.getLogger(ConjurAPI.class.getName());
     private static AbstractAuthenticator authenticator = null;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    static final int RESOURCES_PAGE_SIZE = 1000;
+    private static final ConcurrentHashMap<String, CachedConfiguration> effectiveConfigurations = new ConcurrentHashMap<>();
+    static final long RESOURCE_LISTING_MAX_AGE_MILLIS = 30000;
+    static final int MAX_RESOURCE_LISTING_ENTRIES = 100000;
+    private static final ConcurrentHashMap<String, ResourceListing> resourceListings = new ConcurrentHashMap<>();
 
 
     /**
@@ -129,9 +148,20 @@ public class ConjurAPI {
 
     }
 
+    /**
+     * Set authenticator from global configuration and return it, keys of cached tokens, secrets
+     * and listings are built with the authenticator which serves the request
+     *
+     * @return current authenticator
+     */
+    private static AbstractAuthenticator currentAuthenticator() {
+        setAuthenticator();
+        return authenticator;
+    }
+
     /**
      * Method to build the client authentication API Key/JWT request based on the
-     * ConjurConfiguration.
+     * ConjurConfiguration. Access tokens are cached per identity, see {@link ConjurTokenCache}.
      *
      * @param conjurAuthn authentication object which contains data used to authenticate service
      * @param context     current context in which Jenkins Job is running
@@ -144,7 +174,7 @@ public class ConjurAPI {
                                                ModelObject context) throws IOException {
         setAuthenticator();
 
-        return authenticator.getAuthorizationToken(conjurAuthn, context);
+        return ConjurTokenCache.getToken(authenticator, conjurAuthn, context);
     }
 
     /**
@@ -202,13 +232,43 @@ public class ConjurAPI {
 
         String formattedUrl = String.format("%s/secrets/%s/variable/%s", configuration.getApplianceURL(), configuration.getAccount(), variableId);
 
-        Request request = new Request.Builder().url(
+        // callers fetching the same variable with the same token at the same time share one request,
+        // tokens are shared per identity by the token cache
+        String flightKey = authToken != null ? "secret|" + ConjurTokenCache.digest(authToken) + "|" + formattedUrl : null;
+        return ConjurSingleFlight.execute(flightKey, () -> fetchConjurSecret(client, formattedUrl, authToken));
+    }
+
+    private static byte[] fetchConjurSecret(OkHttpClient client, String formattedUrl, byte[] authToken) throws IOException {
+        Response response = client.newCall(secretRequest(formattedUrl, authToken)).execute();
+        return readSecret(response);
+    }
+
+    /**
+     * Retrieve the secret without blocking the calling thread, the request is executed on the OkHttp dispatcher
+     *
+     * @param client        OkHttp client
+     * @param configuration {@link ConjurConfiguration} containing the Conjur authentication parameters
+     * @param authToken     token to authenticate the request, may be cleared once this method returns
+     * @param variableId    for which to retrieve the secrets
+     * @return future completed with the secret
+     */
+    public static CompletableFuture<byte[]> getConjurSecretAsync(OkHttpClient client, ConjurConfiguration configuration,
+                                                                 byte[] authToken, String variableId) {
+        LOGGER.log(Level.FINEST, String.format("getConjurSecretAsync: variable name %s", variableId));
+
+        String formattedUrl = String.format("%s/secrets/%s/variable/%s", configuration.getApplianceURL(), configuration.getAccount(), variableId);
+        return ConjurAsyncCall.enqueue(client, secretRequest(formattedUrl, authToken), ConjurAPI::readSecret);
+    }
+
+    private static Request secretRequest(String formattedUrl, byte[] authToken) {
+        return new Request.Builder().url(
                         formattedUrl)
                 .get()
                 .addHeader("x-cybr-telemetry", TelemetryConfiguration.getTelemetryHeader()) // Added the telemetry header
                 .addHeader("Authorization", "Token token=\"" + new String(authToken, StandardCharsets.US_ASCII) + "\"").build();
+    }
 
-        Response response = client.newCall(request).execute();
+    private static byte[] readSecret(Response response) throws IOException {
         byte[] result = {};
         ResponseBody body = response.body();
         if (body != null) {
@@ -226,6 +286,63 @@ public class ConjurAPI {
         return result;
     }
 
+    /**
+     * Retrieve several secrets with one call to the Conjur batch retrieval endpoint
+     * ({@code /secrets?variable_ids=...}).
+     *
+     * @param client        OkHttp client
+     * @param configuration {@link ConjurConfiguration} containing the Conjur authentication parameters
+     * @param authToken     token to authenticate the request.
+     * @param variableIds   variables for which to retrieve the secrets
+     * @return secret values keyed by variable id
+     * @throws IOException in case of error connecting to Conjur Server, AuthenticationConjurException when
+     *                     any of the variables is not accessible
+     */
+    @SuppressFBWarnings
+    public static Map<String, byte[]> getConjurSecrets(OkHttpClient client, ConjurConfiguration configuration, byte[] authToken,
+                                                       Collection<String> variableIds) throws IOException {
+        LOGGER.log(Level.FINEST, String.format("getConjurSecrets: variable names %s", variableIds));
+
+        Map<String, String> fullIds = new LinkedHashMap<>();
+        for (String variableId : variableIds) {
+            fullIds.put(String.format("%s:variable:%s", configuration.getAccount(), variableId), variableId);
+        }
+
+        HttpUrl url = HttpUrl.get(String.format("%s/secrets", configuration.getApplianceURL())).newBuilder()
+                .addQueryParameter("variable_ids", String.join(",", fullIds.keySet()))
+                .build();
+
+        Request request = new Request.Builder().url(url)
+                .get()
+                .addHeader("x-cybr-telemetry", TelemetryConfiguration.getTelemetryHeader()) // Added the telemetry header
+                .addHeader("Authorization", "Token token=\"" + new String(authToken, StandardCharsets.US_ASCII) + "\"").build();
+
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            byte[] content = body != null ? body.bytes() : new byte[0];
+            LOGGER.log(Level.FINEST, () -> "getConjurSecrets: Fetch secrets from Conjur response code " + response.code()
+                    + " - " + response.message());
+            if (response.code() != 200) {
+                if (response.code() == 404) {
+                    throw new AuthenticationConjurException("No access");
+                }
+                throw new IOException(String.format("Error fetching secrets from Conjur [%d - %s] %s", response.code(), response.message()
+                        , new String(content, StandardCharsets.UTF_8)));
+            }
+
+            JSONObject values = new JSONObject(new String(content, StandardCharsets.UTF_8));
+            Arrays.fill(content, (byte) 0);
+            for (Map.Entry<String, String> fullId : fullIds.entrySet()) {
+                if (!values.has(fullId.getKey())) {
+                    throw new AuthenticationConjurException("No access");
+                }
+                result.put(fullId.getValue(), values.getString(fullId.getKey()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
     /**
      * Log the Conjur Configuration details
      *
@@ -306,6 +423,73 @@ public class ConjurAPI {
      */
 
     public static ConjurConfiguration getConfigurationFromContext(ModelObject context) {
+        // effective configuration depends on the item (the job for runs) and its parents only
+        Item owner = null;
+        if (context instanceof Run) {
+            owner = ((Run<?, ?>) context).getParent();
+        } else if (context instanceof Item) {
+            owner = (Item) context;
+        }
+
+        String key = null;
+        if (owner != null && owner.getFullName() != null) {
+            key = String.format("%s:%s", context instanceof Run ? "run" : "item", owner.getFullName());
+            CachedConfiguration cached = effectiveConfigurations.get(key);
+            if (cached != null && cached.owner.get() == owner) {
+                return cached.configuration;
+            }
+        }
+
+        ConjurConfiguration returnConfig = resolveConfigurationFromContext(context);
+        if (key != null && returnConfig != null) {
+            effectiveConfigurations.put(key, new CachedConfiguration(owner, returnConfig));
+        }
+        return returnConfig;
+    }
+
+    /**
+     * Drop all resolved configurations, called when configuration changes or items are moved or deleted
+     */
+    public static void invalidateConfigurationCache() {
+        if (!effectiveConfigurations.isEmpty()) {
+            LOGGER.log(Level.FINEST, "Invalidating cached Conjur configurations");
+            effectiveConfigurations.clear();
+        }
+    }
+
+    /**
+     * Drop resolved configurations of the item and items below it
+     *
+     * @param fullName full name of the item whose configuration changed, was moved or deleted
+     */
+    public static void invalidateConfigurationCache(String fullName) {
+        String prefix = fullName + "/";
+        effectiveConfigurations.keySet().removeIf(key -> {
+            String name = key.substring(key.indexOf(':') + 1);
+            return name.equals(fullName) || name.startsWith(prefix);
+        });
+    }
+
+    /**
+     * Effective configuration resolved for an item
+     */
+    private static final class CachedConfiguration {
+        private final WeakReference<Item> owner;
+        private final ConjurConfiguration configuration;
+
+        CachedConfiguration(Item owner, ConjurConfiguration configuration) {
+            this.owner = new WeakReference<>(owner);
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * Resolve the configuration specific to Context, walking folders up to global configuration
+     *
+     * @param context ModelObject context
+     * @return the Conjur Configuration based on the Jenkins ModelOjbect
+     */
+    private static ConjurConfiguration resolveConfigurationFromContext(ModelObject context) {
         ConjurConfiguration returnConfig = null;
         ConjurConfiguration conjurJobConfig = null;
 
@@ -394,6 +578,20 @@ public class ConjurAPI {
             return null;
         }
 
+        // when path prefix is configured Conjur search narrows the listing, exact prefix is checked below
+        String pathPrefix = conjurConfiguration != null ? StringUtils.trimToNull(conjurConfiguration.getResourcePathPrefix()) : null;
+
+        // contexts sharing appliance, account and identity share one listing
+        String listingKey = resourceListingKey(conjurAuthn, pathPrefix);
+        ResourceListing listing = listingKey != null ? resourceListings.get(listingKey) : null;
+        if (listing != null && listing.isFresh(System.currentTimeMillis())) {
+            LOGGER.log(Level.FINEST, String.format("Using shared resource listing for context: %s", context.getDisplayName()));
+            for (ResourceEntry entry : listing.resources) {
+                addCredentials(allCredentials, type, context, entry.variableId, entry.userName, entry.credentialType);
+            }
+            return allCredentials;
+        }
+
         try {
             authToken = ConjurAPI.getAuthorizationToken(conjurAuthn, context);
         } catch (AuthenticationConjurException exc) {
@@ -407,55 +605,247 @@ public class ConjurAPI {
             return null;
         }
 
-        // First we are getting list of secrets
-
-        String requestUrl = String.format("%s/resources/%s?kind=variable&limit=1000", conjurAuthn.getApplianceUrl(), conjurAuthn.getAccount());
+        // First we are getting list of secrets, page by page
 
-        Request request = new Request.Builder().url(
-                        requestUrl)
-                .get().addHeader("x-cybr-telemetry", TelemetryConfiguration.getTelemetryHeader()) // Added the telemetry header
-                .addHeader("Authorization", "Token token=\"" + new String(authToken, StandardCharsets.US_ASCII) + "\"").build();
+        List<ResourceEntry> resources = new ArrayList<>();
+        String searchTerm = pathPrefix != null ? StringUtils.stripEnd(pathPrefix, "/") : null;
+        String search = StringUtils.isNotEmpty(searchTerm) ? "&search=" + URLEncoder.encode(searchTerm, StandardCharsets.UTF_8.name()) : "";
 
-        // Get Http Client
         OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurConfiguration);
-        Response response = client.newCall(request).execute();
-        ResponseBody responseBody = response.body();
+        long fetchedAt = System.currentTimeMillis();
+        try {
+            int offset = 0;
+            while (true) {
+                String requestUrl = String.format("%s/resources/%s?kind=variable&limit=%d&offset=%d%s", conjurAuthn.getApplianceUrl(),
+                        conjurAuthn.getAccount(), RESOURCES_PAGE_SIZE, offset, search);
+
+                Request request = new Request.Builder().url(
+                                requestUrl)
+                        .get().addHeader("x-cybr-telemetry", TelemetryConfiguration.getTelemetryHeader()) // Added the telemetry header
+                        .addHeader("Authorization", "Token token=\"" + new String(authToken, StandardCharsets.US_ASCII) + "\"").build();
+
+                // pages are fetched on the OkHttp dispatcher, credentials are created while the response is parsed
+                int pageCount = ConjurAsyncCall.await(ConjurAsyncCall.enqueue(client, request, response -> {
+                    ResponseBody responseBody = response.body();
+                    if (responseBody == null) {
+                        throw new IOException("Error fetching variables from Conjur");
+                    }
+                    if (response.code() != 200) {
+                        String respBodyString = responseBody.string();
+                        LOGGER.log(Level.FINEST, String.format("Error fetching variables from Conjur [%d - %s] : %s", response.code(), response.message()
+                                , respBodyString));
+                        throw new IOException(String.format("Error fetching variables from Conjur [%d - %s] : %s", response.code(), response.message(),
+                                respBodyString));
+                    }
 
-        if (responseBody != null) {
-            String respBodyString = responseBody.string();
+                    return parseResources(responseBody.byteStream(), (variableId, userName, credentialType) -> {
+                        if (pathPrefix == null || variableId.startsWith(pathPrefix)) {
+                            resources.add(new ResourceEntry(variableId, userName, credentialType));
+                            addCredentials(allCredentials, type, context, variableId, userName, credentialType);
+                        }
+                    });
+                }));
+                LOGGER.log(Level.FINEST, String.format("ConjurAPI %d resources returned for request %s", pageCount, requestUrl));
 
-            LOGGER.log(Level.FINEST, String.format("ConjurAPI RESULT => %s request %s", respBodyString, requestUrl));
-            if (response.code() != 200) {
-                LOGGER.log(Level.FINEST, String.format("Error fetching variables from Conjur [%d - %s] : %s", response.code(), response.message()
-                        , respBodyString));
-                throw new IOException(String.format("Error fetching variables from Conjur [%d - %s] : %s", response.code(), response.message(),
-                        respBodyString));
+                if (pageCount < RESOURCES_PAGE_SIZE) {
+                    break;
+                }
+                offset += pageCount;
+            }
+        } finally {
+            if (authToken != null) {
+                Arrays.fill(authToken, (byte) 0);
+            }
+        }
+        if (listingKey != null) {
+            putResourceListing(listingKey, new ResourceListing(resources, fetchedAt, listingMaxAgeMillis()));
+        }
+        LOGGER.log(Level.FINEST, String.format("%d credentials returned", allCredentials.size()));
+        return allCredentials;
+    }
+
+    /**
+     * Build key of the resource listing from appliance URL, account, authenticated identity and path prefix
+     *
+     * @return key or null if listing should not be shared
+     */
+    static String resourceListingKey(ConjurAuthnInfo conjurAuthn, String pathPrefix) {
+        String identityKey = ConjurTokenCache.cacheKey(currentAuthenticator(), conjurAuthn);
+        return identityKey != null ? identityKey + "|" + StringUtils.defaultString(pathPrefix) : null;
+    }
+
+    /**
+     * Share listing, keeping at most MAX_RESOURCE_LISTING_ENTRIES resources in all listings.
+     * Stale listings are dropped first, then the oldest ones.
+     */
+    static synchronized void putResourceListing(String key, ResourceListing listing) {
+        int size = listing.resources.size();
+        if (size > MAX_RESOURCE_LISTING_ENTRIES) {
+            resourceListings.remove(key);
+            return;
+        }
+        resourceListings.remove(key);
+        if (resourceListingEntries() + size > MAX_RESOURCE_LISTING_ENTRIES) {
+            long now = System.currentTimeMillis();
+            resourceListings.values().removeIf(l -> !l.isFresh(now));
+        }
+        int entries = resourceListingEntries();
+        if (entries + size > MAX_RESOURCE_LISTING_ENTRIES) {
+            List<Map.Entry<String, ResourceListing>> oldestFirst = new ArrayList<>(resourceListings.entrySet());
+            oldestFirst.sort((a, b) -> Long.compare(a.getValue().fetchedAt, b.getValue().fetchedAt));
+            for (Map.Entry<String, ResourceListing> oldest : oldestFirst) {
+                if (entries + size <= MAX_RESOURCE_LISTING_ENTRIES) {
+                    break;
+                }
+                if (resourceListings.remove(oldest.getKey(), oldest.getValue())) {
+                    entries -= oldest.getValue().resources.size();
+                }
+            }
+        }
+        resourceListings.put(key, listing);
+    }
+
+    /**
+     * @return number of resources in all shared listings
+     */
+    static int resourceListingEntries() {
+        int entries = 0;
+        for (ResourceListing listing : resourceListings.values()) {
+            entries += listing.resources.size();
+        }
+        return entries;
+    }
+
+    /**
+     * Listing is shared for part of the credential cache time to live, so contexts refreshed
+     * around the same time use one listing while each refresh still gets recent data
+     *
+     * @return time in milliseconds
+     */
+    private static long listingMaxAgeMillis() {
+        long ttlSeconds = GlobalConjurConfiguration.DEFAULT_CREDENTIAL_CACHE_TTL_IN_SECONDS;
+        try {
+            GlobalConjurConfiguration globalConfig = GlobalConfiguration.all().get(GlobalConjurConfiguration.class);
+            if (globalConfig != null) {
+                ttlSeconds = globalConfig.getCredentialCacheTtlInSeconds();
             }
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.FINEST, String.format("Using default credential cache time to live: %s", e));
+        }
+        return Math.min(RESOURCE_LISTING_MAX_AGE_MILLIS, TimeUnit.SECONDS.toMillis(ttlSeconds) / 2);
+    }
 
-            // now we parse response and go through all secrets
+    /**
+     * Drop all shared resource listings
+     */
+    public static void invalidateResourceListings() {
+        resourceListings.clear();
+    }
 
-            JSONArray resultResources = new JSONArray(respBodyString);
-            for (int i = 0; i < resultResources.length(); i++) {
-                JSONObject resource = resultResources.getJSONObject(i);
+    /**
+     * Variable found in the resource listing
+     */
+    static final class ResourceEntry {
+        private final String variableId;
+        private final String userName;
+        private final String credentialType;
+
+        ResourceEntry(String variableId, String userName, String credentialType) {
+            this.variableId = variableId;
+            this.userName = userName;
+            this.credentialType = credentialType;
+        }
+    }
+
+    /**
+     * Resource listing shared by contexts with the same identity
+     */
+    static final class ResourceListing {
+        private final List<ResourceEntry> resources;
+        private final long fetchedAt;
+        private final long maxAgeMillis;
+
+        ResourceListing(List<ResourceEntry> resources, long fetchedAt, long maxAgeMillis) {
+            this.resources = Collections.unmodifiableList(resources);
+            this.fetchedAt = fetchedAt;
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        boolean isFresh(long now) {
+            return now - fetchedAt < maxAgeMillis;
+        }
+    }
+
+    /**
+     * Receives variables found in the resource listing
+     */
+    @FunctionalInterface
+    interface ResourceHandler {
+        void resource(String variableId, String userName, String credentialType);
+    }
 
-                String variableId = resource.getString("id").split(":")[2];
-                JSONArray annotations = resource.getJSONArray("annotations");
+    /**
+     * Parse resource listing returned by Conjur without loading the whole response into memory
+     *
+     * @param input   response stream containing JSON array of resources
+     * @param handler called for every variable with its id and Jenkins annotations
+     * @return number of resources in the listing
+     * @throws IOException when response cannot be parsed
+     */
+    static int parseResources(InputStream input, ResourceHandler handler) throws IOException {
+        int count = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Error parsing variables from Conjur: array expected");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
                 String userName = null;
                 String credentialType = null;
-                for (int j = 0; j < annotations.length(); j++) {
-                    JSONObject annotation = annotations.getJSONObject(j);
-                    switch (annotation.getString("name").toLowerCase()) {
-                        case "jenkins_credential_username":
-                            userName = annotation.getString("value");
-                            break;
-                        case "jenkins_credential_type":
-                            credentialType = annotation.getString("value").toLowerCase();
-                            break;
-                        default:
-                            break;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("id".equals(field) && value == JsonToken.VALUE_STRING) {
+                        id = parser.getText();
+                    } else if ("annotations".equals(field) && value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            String name = null;
+                            String annotationValue = null;
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                String annotationField = parser.getCurrentName();
+                                parser.nextToken();
+                                if ("name".equals(annotationField)) {
+                                    name = parser.getValueAsString();
+                                } else if ("value".equals(annotationField)) {
+                                    annotationValue = parser.getValueAsString();
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                            if (name != null && annotationValue != null) {
+                                switch (name.toLowerCase()) {
+                                    case "jenkins_credential_username":
+                                        userName = annotationValue;
+                                        break;
+                                    case "jenkins_credential_type":
+                                        credentialType = annotationValue.toLowerCase();
+                                        break;
+                                    default:
+                                        break;
+                                }
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
                     }
                 }
 
+                count++;
+                if (id == null) {
+                    continue;
+                }
+
                 if (credentialType == null) {
                     if (userName == null) {
                         credentialType = "credential";
@@ -464,82 +854,98 @@ public class ConjurAPI {
                     }
                 }
 
-                // Intel request, we always create secret string credentials
-
-                ConjurSecretCredentials credential = new ConjurSecretCredentialsImpl(CredentialsScope.GLOBAL, variableId, variableId, "CyberArk Conjur Provided");
-                credential.setContext(context);
-                credential.setInheritedContext(context);
-
-                allCredentials.add(credential);
-
-                switch (credentialType) {
-                    case "usernamecredential":
-                        ConjurSecretUsernameCredentials usernameCredential = new ConjurSecretUsernameCredentialsImpl(CredentialsScope.GLOBAL, "username-" + variableId, userName, variableId, "CyberArk Conjur Provided");
-                        usernameCredential.setContext(context);
-                        usernameCredential.setInheritedContext(context);
-                        if (type.isInstance(usernameCredential)) {
-                            allCredentials.add(usernameCredential);
-                        }
-                        break;
-                    case "stringcredential":
-                        ConjurSecretStringCredentials stringCredential = new ConjurSecretStringCredentialsImpl(CredentialsScope.GLOBAL, "string-" + variableId, variableId, "CyberArk Conjur Provided");
-                        stringCredential.setContext(context);
-                        stringCredential.setInheritedContext(context);
-                        if (type.isInstance(stringCredential)) {
-                            allCredentials.add(stringCredential);
-                        }
-                        break;
-                    case "usernamesshkeycredential":
-                        ConjurSecretUsernameSSHKeyCredentials usernameSSHKeyCredential = new ConjurSecretUsernameSSHKeyCredentialsImpl(CredentialsScope.GLOBAL, "usernamesshkey-" + variableId, userName, variableId, null /* no passphrase yet */, "CyberArk Conjur Provided");
-                        usernameSSHKeyCredential.setContext(context);
-                        usernameSSHKeyCredential.setInheritedContext(context);
-                        if (type.isInstance(usernameSSHKeyCredential)) {
-                            allCredentials.add(usernameSSHKeyCredential);
-                        }
-                        break;
-                    case "filecredential":
-                        ConjurSecretFileCredentials fileCredential = new ConjurSecretFileCredentialsImpl(
-                                CredentialsScope.GLOBAL,
-                                "file-" + variableId,
-                                "CyberArk Conjur Provided",
-                                variableId);
-                        fileCredential.setContext(context);
-                        fileCredential.setInheritedContext(context);
-                        if (type.isInstance(fileCredential)) {
-                            allCredentials.add(fileCredential);
-                        }
-                        break;
-                    case "dockercertcredential":
-                        ConjurSecretDockerCertCredentials dockerCertCredential = new ConjurSecretDockerCertCredentialsImpl(
-                                CredentialsScope.GLOBAL,
-                                "docker-cert-" + variableId,
-                                variableId,
-                                variableId + "/key",
-                                variableId + "/cert",
-                                variableId + "/ca"
-                        );
-                        dockerCertCredential.setContext(context);
-                        dockerCertCredential.setInheritedContext(context);
-                        if (type.isInstance(dockerCertCredential)) {
-                            allCredentials.add(dockerCertCredential);
-                        }
-                        break;
-                    default:
+                // resource id has form account:kind:path
+                String[] idParts = id.split(":", 3);
+                if (idParts.length == 3) {
+                    handler.resource(idParts[2], userName, credentialType);
+                }
+            }
+        }
+        return count;
+    }
 
-                        break;
+    /**
+     * Create credentials for variable found in Conjur
+     *
+     * @param allCredentials collection to which credentials are added
+     * @param type           requested credentials type
+     * @param context        context to which credentials are assigned
+     * @param variableId     variable path
+     * @param userName       value of jenkins_credential_username annotation
+     * @param credentialType value of jenkins_credential_type annotation
+     */
+    private static void addCredentials(Collection<StandardCredentials> allCredentials, Class<?> type, ModelObject context,
+                                       String variableId, String userName, String credentialType) {
+        // Intel request, we always create secret string credentials
+
+        ConjurSecretCredentials credential = new ConjurSecretCredentialsImpl(CredentialsScope.GLOBAL, variableId, variableId, "CyberArk Conjur Provided");
+        credential.setContext(context);
+        credential.setInheritedContext(context);
+
+        allCredentials.add(credential);
+
+        switch (credentialType) {
+            case "usernamecredential":
+                ConjurSecretUsernameCredentials usernameCredential = new ConjurSecretUsernameCredentialsImpl(CredentialsScope.GLOBAL, "username-" + variableId, userName, variableId, "CyberArk Conjur Provided");
+                usernameCredential.setContext(context);
+                usernameCredential.setInheritedContext(context);
+                if (type.isInstance(usernameCredential)) {
+                    allCredentials.add(usernameCredential);
+                }
+                break;
+            case "stringcredential":
+                ConjurSecretStringCredentials stringCredential = new ConjurSecretStringCredentialsImpl(CredentialsScope.GLOBAL, "string-" + variableId, variableId, "CyberArk Conjur Provided");
+                stringCredential.setContext(context);
+                stringCredential.setInheritedContext(context);
+                if (type.isInstance(stringCredential)) {
+                    allCredentials.add(stringCredential);
+                }
+                break;
+            case "usernamesshkeycredential":
+                ConjurSecretUsernameSSHKeyCredentials usernameSSHKeyCredential = new ConjurSecretUsernameSSHKeyCredentialsImpl(CredentialsScope.GLOBAL, "usernamesshkey-" + variableId, userName, variableId, null /* no passphrase yet */, "CyberArk Conjur Provided");
+                usernameSSHKeyCredential.setContext(context);
+                usernameSSHKeyCredential.setInheritedContext(context);
+                if (type.isInstance(usernameSSHKeyCredential)) {
+                    allCredentials.add(usernameSSHKeyCredential);
+                }
+                break;
+            case "filecredential":
+                ConjurSecretFileCredentials fileCredential = new ConjurSecretFileCredentialsImpl(
+                        CredentialsScope.GLOBAL,
+                        "file-" + variableId,
+                        "CyberArk Conjur Provided",
+                        variableId);
+                fileCredential.setContext(context);
+                fileCredential.setInheritedContext(context);
+                if (type.isInstance(fileCredential)) {
+                    allCredentials.add(fileCredential);
                 }
+                break;
+            case "dockercertcredential":
+                ConjurSecretDockerCertCredentials dockerCertCredential = new ConjurSecretDockerCertCredentialsImpl(
+                        CredentialsScope.GLOBAL,
+                        "docker-cert-" + variableId,
+                        variableId,
+                        variableId + "/key",
+                        variableId + "/cert",
+                        variableId + "/ca"
+                );
+                dockerCertCredential.setContext(context);
+                dockerCertCredential.setInheritedContext(context);
+                if (type.isInstance(dockerCertCredential)) {
+                    allCredentials.add(dockerCertCredential);
+                }
+                break;
+            default:
 
-                LOGGER.log(Level.FINEST, String.format("[getCredentialsForContext] Path: %s  userName:[%s]  credentialType:[%s]", variableId, userName, credentialType));
-            }    // for() json structures in loop
-        } else {
-            throw new IOException("Error fetching variables from Conjur");
+                break;
         }
-        LOGGER.log(Level.FINEST, String.format("%d credentials returned", allCredentials.size()));
-        return allCredentials;
+
+        LOGGER.log(Level.FINEST, String.format("[getCredentialsForContext] Path: %s  userName:[%s]  credentialType:[%s]", variableId, userName, credentialType));
     }
 
     /**
-     * Get secret from Conjur
+     * Get secret from Conjur, the request is made by {@link #fetchSecretAsync(ModelObject, ModelObject, String)}
      *
      * @param context
      * @param inheritedObjectContext
@@ -547,44 +953,87 @@ public class ConjurAPI {
      * @return
      */
     public static Secret getSecretFromConjur(ModelObject context, ModelObject inheritedObjectContext, String variableId) {
-        byte[] result;
-        Secret retSecret = null;
+        // Non-global credentials in the current context and multi-branch store context
+        if (context == null) {
+            return null;
+        }
         try {
-            ConjurConfiguration conjurConfiguration = getConfigurationFromContext(context);
-
-            // Non-global credentials in the current context and multi-branch store context
+            return ConjurAsyncCall.await(fetchSecretAsync(context, inheritedObjectContext, variableId));
+        } catch (Exception e) {
+            throw new InvalidConjurSecretException(e.getMessage(), e);
+        }
+    }
 
-            if (context != null) {
-                // if call is done when context is inherited we must use it to get proper auth data
-                // like JWTToken or ApiKey Credential ID
-                ConjurAuthnInfo conjurAuthn;
-                if (inheritedObjectContext == null) {
-                    conjurAuthn = getConjurAuthnInfo(conjurConfiguration, context);
-                } else {
-                    conjurAuthn = getConjurAuthnInfo(conjurConfiguration, inheritedObjectContext);
-                }
+    /**
+     * Authenticate without blocking the calling thread. Access tokens are cached per identity as for
+     * {@link #getAuthorizationToken(ConjurAuthnInfo, ModelObject)}.
+     *
+     * @param conjurAuthn authentication object which contains data used to authenticate service
+     * @param context     current context in which Jenkins Job is running
+     * @return future completed with the access token, caller is free to clear it
+     */
+    public static CompletableFuture<byte[]> authenticateAsync(ConjurAuthnInfo conjurAuthn, ModelObject context) {
+        return ConjurTokenCache.getTokenAsync(currentAuthenticator(), conjurAuthn, context);
+    }
 
-                // Authenticate to Conjur
-                byte[] authToken = getAuthorizationToken(conjurAuthn, context);
+    /**
+     * Get secret from Conjur without blocking the calling thread. Authentication and fetch run on the
+     * OkHttp dispatcher, so fetches of several secrets overlap. Secret is fetched with the identity of
+     * the context, callers needing inheritance use {@link #getSecretFromConjurWithInheritance}.
+     *
+     * @param context    context which identity is used
+     * @param variableId secret name
+     * @return future completed with the secret
+     */
+    public static CompletableFuture<Secret> fetchSecretAsync(ModelObject context, String variableId) {
+        return fetchSecretAsync(context, null, variableId);
+    }
 
-                // Retrieve secret from Conjur
-                // Get Http Client
-                OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurConfiguration);
-                result = getConjurSecret(client, conjurConfiguration, authToken,
-                        variableId);
+    /**
+     * Get secret from Conjur without blocking the calling thread, see {@link #fetchSecretAsync(ModelObject, String)}
+     *
+     * @param context                context of the request
+     * @param inheritedObjectContext context which authentication data is used when credential is inherited, may be null
+     * @param variableId             secret name
+     * @return future completed with the secret
+     */
+    public static CompletableFuture<Secret> fetchSecretAsync(ModelObject context, ModelObject inheritedObjectContext,
+                                                             String variableId) {
+        try {
+            ConjurConfiguration conjurConfiguration = getConfigurationFromContext(context);
+            // if call is done when context is inherited we must use it to get proper auth data
+            // like JWTToken or ApiKey Credential ID
+            ConjurAuthnInfo conjurAuthn = getConjurAuthnInfo(conjurConfiguration,
+                    inheritedObjectContext != null ? inheritedObjectContext : context);
+            // token and cached secret are looked up for the same authenticator
+            AbstractAuthenticator requestAuthenticator = currentAuthenticator();
+            String identityKey = ConjurTokenCache.cacheKey(requestAuthenticator, conjurAuthn);
+            Secret cached = getCachedSecret(context, identityKey, variableId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
 
-                retSecret = Secret.fromString(new String(result, StandardCharsets.UTF_8));
+            OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurConfiguration);
+            return ConjurTokenCache.getTokenAsync(requestAuthenticator, conjurAuthn, context).thenCompose(authToken -> {
+                if (authToken == null) {
+                    return CompletableFuture.failedFuture(new AuthenticationConjurException("Cannot get authentication token from Conjur"));
+                }
+                try {
+                    return getConjurSecretAsync(client, conjurConfiguration, authToken, variableId);
+                } finally {
+                    // the request has been built, token is no longer needed
+                    Arrays.fill(authToken, (byte) 0);
+                }
+            }).thenApply(result -> {
+                Secret secret = Secret.fromString(new String(result, StandardCharsets.UTF_8));
+                cacheSecret(context, identityKey, variableId, secret);
                 // clean byte array
-
-                Arrays.fill(authToken, (byte) 0);
                 Arrays.fill(result, (byte) 0);
-            }
-        } catch (IOException ie) {
-            throw new InvalidConjurSecretException(ie.getMessage(), ie);
-        } catch (Exception e) {
-            throw new InvalidConjurSecretException(e.getMessage(), e);
+                return secret;
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return retSecret;
     }
 
     /**
@@ -633,12 +1082,131 @@ public class ConjurAPI {
      * @return Secret
      */
     public static Secret getSecretFromConjurWithInheritance(ModelObject context, ConjurSecretCredentials credentials, String variableId) {
-        byte[] result;
-        Secret retSecret = null;
-        byte[] authToken;
+        ModelObject build = context;
+        return fetchWithInheritance(context, credentials, variableId, identityKey -> getCachedSecret(build, identityKey, variableId),
+                (client, conjurConfiguration, authToken, identityKey) -> {
+            byte[] result = getConjurSecret(client, conjurConfiguration, authToken, variableId);
+            Secret secret = Secret.fromString(new String(result, StandardCharsets.UTF_8));
+            cacheSecret(build, identityKey, variableId, secret);
+            // clean byte array
+            Arrays.fill(result, (byte) 0);
+            return secret;
+        });
+    }
 
+    /**
+     * Get several secrets from Conjur with one request, using inheritance.
+     * All variables have to be accessible on the same level. Used by credentials holding several variables,
+     * such as {@link ConjurSecretDockerCertCredentials}; username and SSH key credentials hold one variable
+     * and use {@link #getSecretFromConjurWithInheritance}.
+     *
+     * @param context     main context to which credential is assigned
+     * @param credentials to which context will be assigned when call will be able to receive secrets
+     * @param variableIds secret names
+     * @return Secrets keyed by variable id
+     */
+    public static Map<String, Secret> getSecretsFromConjurWithInheritance(ModelObject context, ConjurSecretCredentials credentials,
+                                                                          Collection<String> variableIds) {
+        ModelObject build = context;
+        return fetchWithInheritance(context, credentials, String.join(",", variableIds),
+                identityKey -> getCachedSecrets(build, identityKey, variableIds),
+                (client, conjurConfiguration, authToken, identityKey) -> {
+            Map<String, Secret> secrets = new LinkedHashMap<>();
+            if (variableIds.size() == 1) {
+                String variableId = variableIds.iterator().next();
+                byte[] result = getConjurSecret(client, conjurConfiguration, authToken, variableId);
+                secrets.put(variableId, Secret.fromString(new String(result, StandardCharsets.UTF_8)));
+                Arrays.fill(result, (byte) 0);
+            } else if (!variableIds.isEmpty()) {
+                for (Map.Entry<String, byte[]> entry : getConjurSecrets(client, conjurConfiguration, authToken, variableIds).entrySet()) {
+                    secrets.put(entry.getKey(), Secret.fromString(new String(entry.getValue(), StandardCharsets.UTF_8)));
+                    Arrays.fill(entry.getValue(), (byte) 0);
+                }
+            }
+            secrets.forEach((variableId, secret) -> cacheSecret(build, identityKey, variableId, secret));
+            return secrets;
+        });
+    }
+
+    /**
+     * @return cached secrets keyed by variable id, null unless all of them are cached
+     */
+    private static Map<String, Secret> getCachedSecrets(ModelObject context, String identityKey, Collection<String> variableIds) {
+        Map<String, Secret> secrets = new LinkedHashMap<>();
+        for (String variableId : variableIds) {
+            Secret secret = getCachedSecret(context, identityKey, variableId);
+            if (secret == null) {
+                return null;
+            }
+            secrets.put(variableId, secret);
+        }
+        return secrets.isEmpty() ? null : secrets;
+    }
+
+    /**
+     * Get secret fetched earlier by the identity, from the cache of the running build first
+     *
+     * @param context     context of the request, build when called from a binding
+     * @param identityKey key of the identity, see {@link ConjurTokenCache#cacheKey}
+     * @param variableId  secret name
+     * @return cached secret or null
+     */
+    private static Secret getCachedSecret(ModelObject context, String identityKey, String variableId) {
+        if (identityKey == null) {
+            return null;
+        }
+        if (context instanceof Run) {
+            ConjurBuildSecretCache buildCache = ((Run<?, ?>) context).getAction(ConjurBuildSecretCache.class);
+            Secret secret = buildCache != null ? buildCache.get(identityKey, variableId) : null;
+            if (secret != null) {
+                return secret;
+            }
+        }
+        return ConjurSecretCache.get(identityKey, variableId);
+    }
+
+    /**
+     * Keep fetched secret for the running build and in the secret cache when it is enabled
+     */
+    private static void cacheSecret(ModelObject context, String identityKey, String variableId, Secret secret) {
+        if (identityKey == null) {
+            return;
+        }
+        if (context instanceof Run) {
+            ConjurBuildSecretCache buildCache = ConjurBuildSecretCache.forBuild((Run<?, ?>) context);
+            if (buildCache != null) {
+                buildCache.put(identityKey, variableId, secret);
+            }
+        }
+        ConjurSecretCache.put(identityKey, variableId, secret);
+    }
+
+    /**
+     * Request made against Conjur once configuration and token for a context are known
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    private interface ConjurRequest<T> {
+        T execute(OkHttpClient client, ConjurConfiguration configuration, byte[] authToken, String identityKey) throws IOException;
+    }
+
+    /**
+     * Execute request using inheritance. When Conjur refuses access on the current level
+     * the request is retried on the parent levels up to Jenkins.
+     *
+     * @param context     main context to which credential is assigned
+     * @param credentials to which context will be assigned when request succeeds
+     * @param requestKey  variable id or ids of the request, used to cache outcomes of the walk
+     * @param cached      returns result cached for the identity of a level or null
+     * @param request     request to execute
+     * @return request result
+     */
+    private static <T> T fetchWithInheritance(ModelObject context, ConjurSecretCredentials credentials, String requestKey,
+                                              Function<String, T> cached, ConjurRequest<T> request) {
         if (context == null) {
             LOGGER.log(Level.FINEST, "No context set for function getSecretWithInheritance");
+            // the current request is only known to the calling thread
             context = Stapler.getCurrentRequest().findAncestorObject(ModelObject.class);
 
             if (context == null) {
@@ -647,63 +1215,126 @@ public class ConjurAPI {
             }
         }
 
+        ModelObject resolvedContext = context;
+        try {
+            return ConjurExecutors.call(() -> walkWithInheritance(resolvedContext, credentials, requestKey, cached, request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidConjurSecretException("Interrupted while fetching secret from Conjur", e);
+        } catch (IOException e) {
+            throw new InvalidConjurSecretException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Walk of {@link #fetchWithInheritance} once the context is known, run on the plugin executor
+     */
+    private static <T> T walkWithInheritance(ModelObject context, ConjurSecretCredentials credentials, String requestKey,
+                                             Function<String, T> cached, ConjurRequest<T> request) {
+        T result;
+        byte[] authToken;
+
         LOGGER.log(Level.FINEST, String.format("Get Secret with inheritance for context: %s", context.getDisplayName()));
 
+        // go straight to the level which succeeded last time for this item and request
+        ModelObject start = context;
+        String walkKey = ConjurInheritanceCache.walkKey(start, requestKey);
+        ModelObject cachedLevel = ConjurInheritanceCache.getLevel(walkKey);
+        if (cachedLevel != null) {
+            LOGGER.log(Level.FINEST, String.format("Starting with level %s which succeeded last time", cachedLevel.getDisplayName()));
+            context = cachedLevel;
+        }
+
         try {
             ConjurConfiguration conjurConfiguration;
 
             // we go through item to the folder on the top and try to get credentials
             while (true) {
+                String identityKey = null;
                 try {
                     LOGGER.log(Level.FINEST, String.format("Get config context %s", context.getDisplayName()));
                     conjurConfiguration = getConfigurationFromContext(context);
                     ConjurAuthnInfo conjurAuthn;
                     conjurAuthn = getConjurAuthnInfo(conjurConfiguration, context);
+                    identityKey = ConjurTokenCache.cacheKey(currentAuthenticator(), conjurAuthn);
+                    // identity of this level was refused recently, go up without calling Conjur
+                    if (context != cachedLevel && ConjurInheritanceCache.isDenied(identityKey, requestKey)) {
+                        LOGGER.log(Level.FINEST, String.format("Access recently refused for context %s", context.getDisplayName()));
+                        context = getParentLevel(context, "No access", null);
+                        continue;
+                    }
+                    // values cached for the identity of this level were fetched with access on this level
+                    T cachedResult = identityKey != null ? cached.apply(identityKey) : null;
+                    if (cachedResult != null) {
+                        result = cachedResult;
+                        credentials.setContext(context);
+                        ConjurInheritanceCache.putLevel(walkKey, start, context);
+                        break;
+                    }
                     // Authenticate to Conjur
                     authToken = getAuthorizationToken(conjurAuthn, context);
 
                     // Retrieve secret from Conjur
                     // Get Http Client
                     OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurConfiguration);
-                    result = getConjurSecret(client, conjurConfiguration, authToken,
-                            variableId);
-                    retSecret = Secret.fromString(new String(result, StandardCharsets.UTF_8));
+                    result = request.execute(client, conjurConfiguration, authToken, identityKey);
 
                     credentials.setContext(context);
+                    ConjurInheritanceCache.putLevel(walkKey, start, context);
                     // clean byte array
                     Arrays.fill(authToken, (byte) 0);
-                    Arrays.fill(result, (byte) 0);
                     break;
                 } catch (AuthenticationConjurException e) {
-                    // when authentication fail we check if upper level have access
-                    if (isInheritanceOn(context)) {
-                        LOGGER.log(Level.FINEST, "Get config context exception: " + context.getDisplayName() + " " + context);
-                        if (context instanceof Run) {
-                            Run<?, ?> run = (Run<?, ?>) context;
-                            Job<?, ?> job = run.getParent();
-                            context = job.getParent();
-                        } else if (context instanceof Job) {
-                            context = ((Job) context).getParent();
-                        } else if (context instanceof AbstractFolder) {
-                            context = ((AbstractFolder<?>) context).getParent();
-                        } else if (context instanceof Hudson) {
-                            LOGGER.log(Level.FINEST, "Get config context Invalid when inheritance is on!");
-                            throw new InvalidConjurSecretException(e.getMessage(), e);
-                        }
-                    } else {
-                        // inheritance is turned off, we have to try to get credentials from root
-                        if (context instanceof Hudson) {
-                            LOGGER.log(Level.FINEST, "Get config context Invalid!");
-                            throw new InvalidConjurSecretException(e.getMessage(), e);
-                        }
-                        // we are sure this will be our last level to check
-                        context = Jenkins.get();
+                    ConjurInheritanceCache.putDenied(identityKey, requestKey);
+                    if (cachedLevel != null && context == cachedLevel) {
+                        // level which succeeded last time lost access, walk again from the beginning
+                        LOGGER.log(Level.FINEST, "Level which succeeded last time refused access, starting from context");
+                        ConjurInheritanceCache.removeLevel(walkKey);
+                        cachedLevel = null;
+                        context = start;
+                        continue;
                     }
+                    // when authentication fail we check if upper level have access
+                    context = getParentLevel(context, e.getMessage(), e);
                 }
             }
         } catch (IOException e) {
             throw new InvalidConjurSecretException(e.getMessage(), e);
         }
-        return retSecret;
+        return result;
+    }
+
+    /**
+     * Return the level above context which is checked next when context was refused access
+     *
+     * @param context level which was refused access
+     * @param message message of the exception thrown when there is no level left
+     * @param cause   reason of the refusal, may be null when it was cached
+     * @return next level
+     */
+    private static ModelObject getParentLevel(ModelObject context, String message, Exception cause) {
+        if (isInheritanceOn(context)) {
+            LOGGER.log(Level.FINEST, "Get config context exception: " + context.getDisplayName() + " " + context);
+            if (context instanceof Run) {
+                Run<?, ?> run = (Run<?, ?>) context;
+                Job<?, ?> job = run.getParent();
+                return job.getParent();
+            } else if (context instanceof Job) {
+                return ((Job) context).getParent();
+            } else if (context instanceof AbstractFolder) {
+                return ((AbstractFolder<?>) context).getParent();
+            } else if (context instanceof Hudson) {
+                LOGGER.log(Level.FINEST, "Get config context Invalid when inheritance is on!");
+                throw new InvalidConjurSecretException(message, cause);
+            }
+            return context;
+        }
+        // inheritance is turned off, we have to try to get credentials from root
+        if (context instanceof Hudson) {
+            LOGGER.log(Level.FINEST, "Get config context Invalid!");
+            throw new InvalidConjurSecretException(message, cause);
+        }
+        // we are sure this will be our last level to check
+        return Jenkins.get();
     }
 }
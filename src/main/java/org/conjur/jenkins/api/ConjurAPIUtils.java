@@ -6,6 +6,9 @@ import hudson.model.ItemGroup;
 import hudson.util.FormValidation;
 import hudson.util.Secret;
 import jenkins.model.Jenkins;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import org.conjur.jenkins.configuration.ConjurConfiguration;
 import org.conjur.jenkins.conjursecrets.ConjurSecretCredentials;
@@ -16,10 +19,17 @@ import org.kohsuke.stapler.Stapler;
 import javax.net.ssl.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.security.cert.Certificate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -32,13 +42,41 @@ public class ConjurAPIUtils {
 
 	public static final Logger LOGGER = Logger.getLogger(ConjurAPIUtils.class.getName());
 
+	/**
+	 * Connection pool and dispatcher shared by every client, so keep-alive connections
+	 * and TLS sessions survive between Conjur calls. Asynchronous calls may use as many
+	 * connections to one appliance as the pool keeps alive. Every request is retried and
+	 * circuit broken by {@link ConjurResilience}, and each attempt passes the adaptive
+	 * concurrency limit of its kind, see {@link ConjurConcurrencyLimiter}.
+	 */
+	static final int MAX_CONNECTIONS_PER_HOST = 32;
+	private static final ConnectionPool CONNECTION_POOL = new ConnectionPool(MAX_CONNECTIONS_PER_HOST, 5, TimeUnit.MINUTES);
+	private static final Dispatcher DISPATCHER = createDispatcher();
+	private static final OkHttpClient BASE_CLIENT = new OkHttpClient.Builder()
+			.connectionPool(CONNECTION_POOL)
+			.dispatcher(DISPATCHER)
+			.addInterceptor(ConjurResilience.INSTANCE)
+			.addInterceptor(ConjurConcurrencyLimiter.INSTANCE)
+			.build();
+
+	private static Dispatcher createDispatcher() {
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequestsPerHost(MAX_CONNECTIONS_PER_HOST);
+		return dispatcher;
+	}
+
+	/**
+	 * Clients keyed by appliance URL, certificate credential ID and certificate fingerprint
+	 */
+	private static final ConcurrentHashMap<String, OkHttpClient> httpClients = new ConcurrentHashMap<>();
+
 	/**
 	 * static method to generate CertificateCredentials
 	 *
 	 * @param configuration ConjurConfiguration
 	 * @return CertificateCredentials
 	 */
-	static synchronized CertificateCredentials certificateFromConfiguration(ConjurConfiguration configuration) {
+	static CertificateCredentials certificateFromConfiguration(ConjurConfiguration configuration) {
 		return configuration.getCertificateCredentials();
 	}
 
@@ -72,7 +110,7 @@ public class ConjurAPIUtils {
 			sslContext = SSLContext.getInstance("TLSv1.3");
 			sslContext.init(kms, tms, new SecureRandom());
 
-			client = new OkHttpClient.Builder()
+			client = BASE_CLIENT.newBuilder()
 					.sslSocketFactory(sslContext.getSocketFactory(), (X509TrustManager) tms[0]).build();
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Error configuring server certificates.", e);
@@ -82,19 +120,79 @@ public class ConjurAPIUtils {
 
 	/**
 	 * Static method to get HttpClinet
-	 * We have to use this method as we want to use certificate from configuration
+	 * We have to use this method as we want to use certificate from configuration.
+	 * Clients are reused for the same appliance URL and certificate, all of them share
+	 * one connection pool and dispatcher.
 	 *
 	 * @param configuration ConjurConfiguration
 	 * @return OkHttpClient client
 	 */
-	public static synchronized OkHttpClient getHttpClient(ConjurConfiguration configuration)
+	public static OkHttpClient getHttpClient(ConjurConfiguration configuration)
 	{
 		CertificateCredentials certificate = certificateFromConfiguration(configuration);
 
-		if (certificate != null) {
+		if (certificate == null) {
+			return BASE_CLIENT;
+		}
+
+		// fingerprint is calculated once per resolved certificate, see ConjurConfiguration
+		String key = String.format("%s|%s|%s", configuration.getApplianceURL(),
+				configuration.getCertificateCredentialID(), configuration.getCertificateFingerprint());
+
+		return httpClients.computeIfAbsent(key, k -> {
+			LOGGER.log(Level.FINEST, String.format("Creating HTTP client for %s", configuration.getApplianceURL()));
 			return httpClientWithCertificate(certificate);
+		});
+	}
+
+	/**
+	 * @param url request URL
+	 * @return scheme, host and port identifying the appliance the request is sent to
+	 */
+	static String applianceKey(HttpUrl url) {
+		return String.format("%s://%s:%d", url.scheme(), url.host(), url.port());
+	}
+
+	/**
+	 * Drop all cached clients, called when Conjur configuration or certificate credentials change.
+	 * Pooled connections are shared and stay available to newly created clients.
+	 */
+	public static void invalidateHttpClients()
+	{
+		if (!httpClients.isEmpty()) {
+			LOGGER.log(Level.FINEST, "Invalidating cached HTTP clients");
+			httpClients.clear();
+		}
+	}
+
+	/**
+	 * Calculate SHA-256 fingerprint of all certificates stored in the certificate credentials
+	 *
+	 * @param certificate CertificateCredentials
+	 * @return fingerprint as hex string
+	 */
+	public static String certificateFingerprint(CertificateCredentials certificate) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			KeyStore keyStore = certificate.getKeyStore();
+			List<String> aliases = Collections.list(keyStore.aliases());
+			Collections.sort(aliases);
+			for (String alias : aliases) {
+				digest.update(alias.getBytes(StandardCharsets.UTF_8));
+				Certificate cert = keyStore.getCertificate(alias);
+				if (cert != null) {
+					digest.update(cert.getEncoded());
+				}
+			}
+			StringBuilder fingerprint = new StringBuilder();
+			for (byte b : digest.digest()) {
+				fingerprint.append(String.format("%02x", b));
+			}
+			return fingerprint.toString();
+		} catch (Exception e) {
+			LOGGER.log(Level.FINEST, String.format("Unable to calculate certificate fingerprint: %s", e));
+			return String.valueOf(System.identityHashCode(certificate));
 		}
-		return new OkHttpClient.Builder().build();
 	}
 
 	/**
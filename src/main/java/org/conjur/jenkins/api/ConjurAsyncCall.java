@@ -0,0 +1,181 @@
+package org.conjur.jenkins.api;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Conjur HTTP calls executed on the OkHttp dispatcher instead of the calling thread.
+ * The returned future completes on a dispatcher thread, so dependent stages should not block.
+ * Cancelling the future cancels the call. Calls over the concurrency limit of their bulkhead are
+ * enqueued once a slot is free, so they do not hold a dispatcher thread while they wait.
+ * Retries of such calls are scheduled after their backoff instead of sleeping on the dispatcher.
+ */
+public final class ConjurAsyncCall {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurAsyncCall.class.getName());
+
+	private ConjurAsyncCall() {
+		super();
+	}
+
+	/**
+	 * Converts response of a call to its result
+	 *
+	 * @param <T> result type
+	 */
+	@FunctionalInterface
+	public interface ResponseHandler<T> {
+		T handle(Response response) throws IOException;
+	}
+
+	/**
+	 * Enqueue request once it fits the concurrency limit, response is closed once the handler returns.
+	 * Failed attempts are retried as {@link ConjurResilience} does for synchronous calls, the backoff is
+	 * a delayed re-enqueue so no dispatcher thread sleeps.
+	 *
+	 * @param client  client executing the request
+	 * @param request request to enqueue
+	 * @param handler converts response to result
+	 * @param <T>     result type
+	 * @return future completed with the result or with the failure of the call or handler
+	 */
+	public static <T> CompletableFuture<T> enqueue(OkHttpClient client, Request request, ResponseHandler<T> handler) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		attempt(client, request, handler, future, 1);
+		return future;
+	}
+
+	private static <T> void attempt(OkHttpClient client, Request request, ResponseHandler<T> handler,
+			CompletableFuture<T> future, int attempt) {
+		if (future.isDone()) {
+			return;
+		}
+		ConjurResilience.CircuitBreaker circuit = ConjurResilience.circuitFor(request.url());
+		try {
+			circuit.acquire();
+		} catch (ConjurResilience.CircuitOpenException e) {
+			future.completeExceptionally(e);
+			return;
+		}
+		ConjurConcurrencyLimiter.Bulkhead bulkhead = ConjurConcurrencyLimiter.bulkheadFor(request);
+		CompletableFuture<Long> slot = bulkhead.acquireAsync(ConjurConcurrencyLimiter.QUEUE_TIMEOUT_MILLIS);
+		future.whenComplete((result, e) -> {
+			if (future.isCancelled()) {
+				slot.cancel(false);
+			}
+		});
+		slot.whenComplete((start, e) -> {
+			if (e != null) {
+				circuit.onIgnored();
+				future.completeExceptionally(e);
+				return;
+			}
+			ConjurConcurrencyLimiter.Permit permit = new ConjurConcurrencyLimiter.Permit(bulkhead, 0);
+			if (future.isDone()) {
+				circuit.onIgnored();
+				permit.release();
+				return;
+			}
+			Call call = client.newCall(request.newBuilder().tag(ConjurConcurrencyLimiter.Permit.class, permit).build());
+			future.whenComplete((value, failure) -> {
+				if (future.isCancelled()) {
+					call.cancel();
+				}
+			});
+			call.enqueue(new Callback() {
+				@Override
+				public void onFailure(Call failedCall, IOException e) {
+					// the limiter releases the slot once the call is executed, release it if the call never ran
+					permit.release();
+					if (failedCall.isCanceled() || !ConjurResilience.isTransient(e)) {
+						circuit.onIgnored();
+						future.completeExceptionally(e);
+						return;
+					}
+					circuit.onFailure();
+					if (!retry(client, request, handler, future, attempt)) {
+						future.completeExceptionally(e);
+					}
+				}
+
+				@Override
+				public void onResponse(Call respondedCall, Response response) {
+					permit.release();
+					int code = response.code();
+					if (code >= 500) {
+						circuit.onFailure();
+					} else if (code == 429) {
+						circuit.onIgnored();
+					} else {
+						circuit.onSuccess();
+					}
+					if (ConjurResilience.isRetryableStatus(code) && retry(client, request, handler, future, attempt)) {
+						response.close();
+						return;
+					}
+					try (response) {
+						future.complete(handler.handle(response));
+					} catch (IOException | RuntimeException e) {
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		});
+	}
+
+	/**
+	 * Schedule next attempt after the backoff of the failed one
+	 *
+	 * @return false if the request should not be sent again
+	 */
+	private static <T> boolean retry(OkHttpClient client, Request request, ResponseHandler<T> handler,
+			CompletableFuture<T> future, int attempt) {
+		if (!ConjurResilience.isIdempotent(request) || attempt >= ConjurResilience.MAX_ATTEMPTS || future.isDone()) {
+			return false;
+		}
+		LOGGER.log(Level.FINE, String.format("Retrying Conjur request %s", request.url().encodedPath()));
+		// attempts only enqueue, so they may run on the common pool once the backoff elapsed
+		Executor delayed = CompletableFuture.delayedExecutor(ConjurResilience.backoffMillis(attempt), TimeUnit.MILLISECONDS);
+		delayed.execute(() -> attempt(client, request, handler, future, attempt + 1));
+		return true;
+	}
+
+	/**
+	 * Wait for result of a call made by a caller which needs it synchronously
+	 *
+	 * @param future future returned by {@link #enqueue}
+	 * @param <T>    result type
+	 * @return result
+	 * @throws IOException failure of the call or handler, or interruption of the waiting thread
+	 */
+	public static <T> T await(CompletableFuture<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for Conjur");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package org.conjur.jenkins.api;
+
+import hudson.Extension;
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.util.Secret;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Secret values fetched for a build, kept for the lifetime of the build so that stages binding the same
+ * credential do not fetch it again. Values are keyed by the identity which fetched them and the variable id.
+ * Values are never written to the build record and are wiped when the build completes.
+ */
+public class ConjurBuildSecretCache extends InvisibleAction {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurBuildSecretCache.class.getName());
+
+	private static final Object LOCK = new Object();
+
+	private transient Map<String, Secret> secrets;
+
+	/**
+	 * Return cache of the build, add it to the build if there is none
+	 *
+	 * @param build current build
+	 * @return cache of the build or null if build is not running
+	 */
+	static ConjurBuildSecretCache forBuild(Run<?, ?> build) {
+		ConjurBuildSecretCache cache = build.getAction(ConjurBuildSecretCache.class);
+		if (cache == null && build.isBuilding()) {
+			synchronized (LOCK) {
+				cache = build.getAction(ConjurBuildSecretCache.class);
+				if (cache == null) {
+					cache = new ConjurBuildSecretCache();
+					build.addAction(cache);
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * @param identityKey key of the identity which fetched the secret
+	 * @param variableId  variable id
+	 * @return secret fetched during the build or null
+	 */
+	Secret get(String identityKey, String variableId) {
+		Map<String, Secret> current = secrets;
+		return current != null ? current.get(identityKey + "|" + variableId) : null;
+	}
+
+	/**
+	 * @param identityKey key of the identity which fetched the secret
+	 * @param variableId  variable id
+	 * @param secret      secret value
+	 */
+	synchronized void put(String identityKey, String variableId, Secret secret) {
+		if (secrets == null) {
+			secrets = new ConcurrentHashMap<>();
+		}
+		secrets.put(identityKey + "|" + variableId, secret);
+	}
+
+	/**
+	 * Remove all values
+	 */
+	synchronized void clear() {
+		secrets = null;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	int size() {
+		Map<String, Secret> current = secrets;
+		return current != null ? current.size() : 0;
+	}
+
+	@Extension
+	public static class CleanupListener extends RunListener<Run<?, ?>> {
+		@Override
+		public void onCompleted(Run<?, ?> run, TaskListener listener) {
+			run.getActions(ConjurBuildSecretCache.class).forEach(cache -> {
+				LOGGER.log(Level.FINEST, String.format("Wiping %d secrets cached for %s", cache.size(), run.getFullDisplayName()));
+				cache.clear();
+				run.removeAction(cache);
+			});
+		}
+	}
+}
@@ -0,0 +1,430 @@
+package org.conjur.jenkins.api;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Adaptive limit of concurrent requests sent to Conjur, installed on every client of {@link ConjurAPIUtils}.
+ * Each appliance has separate bulkheads for authentication, resource listing and secret fetches, so a burst
+ * of one kind, or a slow appliance, does not starve the others. Each bulkhead adjusts its limit with AIMD:
+ * the limit grows by one per window of requests answered close to the lowest observed latency and shrinks
+ * by 10% when latency grows over twice that or Conjur answers 429/503. Requests over the limit wait in queue,
+ * up to a timeout.
+ */
+public final class ConjurConcurrencyLimiter implements Interceptor {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurConcurrencyLimiter.class.getName());
+
+	static final long QUEUE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	static final double LATENCY_TOLERANCE = 2.0;
+	static final double BACKOFF_RATIO = 0.9;
+	static final long LATENCY_NOISE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final ConcurrentHashMap<String, Bulkheads> appliances = new ConcurrentHashMap<>();
+
+	static final ConjurConcurrencyLimiter INSTANCE = new ConjurConcurrencyLimiter();
+
+	private ConjurConcurrencyLimiter() {
+		super();
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		// asynchronous calls get their slot before they are enqueued, see ConjurAsyncCall
+		Permit permit = request.tag(Permit.class);
+		if (permit == null) {
+			Bulkhead bulkhead = bulkheadFor(request);
+			permit = new Permit(bulkhead, bulkhead.acquire(QUEUE_TIMEOUT_MILLIS));
+		}
+		long start = permit.startNanos != 0 ? permit.startNanos : System.nanoTime();
+		boolean overloaded = false;
+		boolean measured = true;
+		try {
+			Response response = chain.proceed(request);
+			overloaded = response.code() == 429 || response.code() == 503;
+			return response;
+		} catch (SocketTimeoutException e) {
+			overloaded = true;
+			throw e;
+		} catch (IOException | RuntimeException e) {
+			// failures unrelated to load do not tell anything about latency
+			measured = false;
+			throw e;
+		} finally {
+			permit.release(start, overloaded, measured);
+		}
+	}
+
+	/**
+	 * @param request Conjur request
+	 * @return bulkhead of the request kind
+	 */
+	static Bulkhead bulkheadFor(Request request) {
+		Bulkheads bulkheads = appliances.computeIfAbsent(ConjurAPIUtils.applianceKey(request.url()), Bulkheads::new);
+		String path = request.url().encodedPath();
+		if (path.endsWith("/authenticate")) {
+			return bulkheads.authn;
+		} else if (path.contains("/resources/")) {
+			return bulkheads.list;
+		}
+		return bulkheads.fetch;
+	}
+
+	/**
+	 * @return bulkheads of all appliances with their current limits and queueing metrics
+	 */
+	public static List<Bulkhead> getBulkheads() {
+		List<Bulkhead> result = new ArrayList<>();
+		appliances.values().forEach(bulkheads -> result.addAll(Arrays.asList(bulkheads.authn, bulkheads.list, bulkheads.fetch)));
+		return result;
+	}
+
+	/**
+	 * Drop bulkheads of all appliances
+	 */
+	static void reset() {
+		appliances.clear();
+	}
+
+	/**
+	 * Slot held by one request, released once
+	 */
+	static final class Permit {
+		private final Bulkhead bulkhead;
+		private final long startNanos;
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		/**
+		 * @param bulkhead   bulkhead the slot belongs to
+		 * @param startNanos start time of the request, 0 if it starts once it is executed
+		 */
+		Permit(Bulkhead bulkhead, long startNanos) {
+			this.bulkhead = bulkhead;
+			this.startNanos = startNanos;
+		}
+
+		/**
+		 * Release the slot and adjust limit, does nothing if already released
+		 *
+		 * @param start    start time of the request
+		 * @param overload true if Conjur signalled overload
+		 * @param measured false if latency of the request should be ignored
+		 */
+		void release(long start, boolean overload, boolean measured) {
+			if (released.compareAndSet(false, true)) {
+				bulkhead.release(start, overload, measured);
+			}
+		}
+
+		/**
+		 * Release the slot of a request which was not executed
+		 */
+		void release() {
+			release(System.nanoTime(), false, false);
+		}
+	}
+
+	/**
+	 * Bulkheads of one appliance
+	 */
+	private static final class Bulkheads {
+		private final Bulkhead authn;
+		private final Bulkhead list;
+		private final Bulkhead fetch;
+
+		Bulkheads(String appliance) {
+			this.authn = new Bulkhead(appliance, "authn", 4, 16);
+			this.list = new Bulkhead(appliance, "list", 2, 8);
+			this.fetch = new Bulkhead(appliance, "fetch", 8, 64);
+		}
+	}
+
+	/**
+	 * Thrown when a request waited in queue longer than the timeout
+	 */
+	public static final class QueueTimeoutException extends InterruptedIOException {
+		private static final long serialVersionUID = 1L;
+
+		QueueTimeoutException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Concurrency limit and queue of one kind of requests sent to one appliance.
+	 * Waiting uses a lock condition rather than a monitor, so virtual threads do not pin their carrier.
+	 */
+	public static final class Bulkhead {
+		private final String appliance;
+		private final String name;
+		private final int initialLimit;
+		private final int maxLimit;
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition available = lock.newCondition();
+		private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+		private double limit;
+		private int inFlight;
+		private int queued;
+		private double baselineNanos;
+		private long lastDecreaseNanos;
+
+		private long completed;
+		private long overloaded;
+		private long rejected;
+		private long queuedTotal;
+		private long queueWaitNanos;
+		private int maxQueued;
+
+		Bulkhead(String appliance, String name, int initialLimit, int maxLimit) {
+			this.appliance = appliance;
+			this.name = name;
+			this.initialLimit = initialLimit;
+			this.maxLimit = maxLimit;
+			this.limit = initialLimit;
+		}
+
+		/**
+		 * Wait until the request fits the limit
+		 *
+		 * @param timeoutMillis maximum time to wait
+		 * @return start time of the request
+		 * @throws IOException when timeout elapsed or thread was interrupted
+		 */
+		long acquire(long timeoutMillis) throws IOException {
+			lock.lock();
+			try {
+				long now = System.nanoTime();
+				if (inFlight >= (int) limit) {
+					long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+					queued++;
+					queuedTotal++;
+					maxQueued = Math.max(maxQueued, queued);
+					LOGGER.log(Level.FINEST, () -> String.format("Conjur %s request to %s queued, %d in flight, limit %d",
+							name, appliance, inFlight, (int) limit));
+					try {
+						while (inFlight >= (int) limit) {
+							if (remaining <= 0) {
+								rejected++;
+								throw new QueueTimeoutException(String.format("Conjur %s request to %s waited %d ms for a free slot",
+										name, appliance, timeoutMillis));
+							}
+							remaining = available.awaitNanos(remaining);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted while waiting for Conjur request slot");
+					} finally {
+						queued--;
+					}
+					long started = System.nanoTime();
+					queueWaitNanos += started - now;
+					now = started;
+				}
+				inFlight++;
+				return now;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Get a slot without blocking, requests over the limit wait in a queue served as slots are released
+		 *
+		 * @param timeoutMillis maximum time to wait
+		 * @return future completed with the start time of the request, or with QueueTimeoutException
+		 */
+		CompletableFuture<Long> acquireAsync(long timeoutMillis) {
+			Waiter waiter;
+			lock.lock();
+			try {
+				long now = System.nanoTime();
+				if (inFlight < (int) limit && waiters.isEmpty()) {
+					inFlight++;
+					return CompletableFuture.completedFuture(now);
+				}
+				waiter = new Waiter(now);
+				waiters.add(waiter);
+				queued++;
+				queuedTotal++;
+				maxQueued = Math.max(maxQueued, queued);
+			} finally {
+				lock.unlock();
+			}
+			CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+				boolean timedOut;
+				lock.lock();
+				try {
+					timedOut = waiters.remove(waiter);
+					if (timedOut) {
+						queued--;
+						rejected++;
+					}
+				} finally {
+					lock.unlock();
+				}
+				if (timedOut) {
+					waiter.future.completeExceptionally(new QueueTimeoutException(String.format(
+							"Conjur %s request to %s waited %d ms for a free slot", name, appliance, timeoutMillis)));
+				}
+			});
+			return waiter.future;
+		}
+
+		/**
+		 * Release slot and adjust limit from the observed latency
+		 *
+		 * @param startNanos start time returned by acquire
+		 * @param overload   true if Conjur signalled overload
+		 * @param measured   false if latency of the request should be ignored
+		 */
+		void release(long startNanos, boolean overload, boolean measured) {
+			List<Waiter> ready = new ArrayList<>();
+			long now;
+			lock.lock();
+			try {
+				inFlight--;
+				now = System.nanoTime();
+				long latency = now - startNanos;
+				if (measured) {
+					completed++;
+					// lowest latency seen, slowly following latency up so a lasting change is learnt
+					baselineNanos = baselineNanos == 0 || latency < baselineNanos
+							? latency : baselineNanos + (latency - baselineNanos) * 0.01;
+					boolean slow = latency > baselineNanos * LATENCY_TOLERANCE && latency - baselineNanos > LATENCY_NOISE_NANOS;
+					if (overload || slow) {
+						// decrease at most once per round trip
+						if (now - lastDecreaseNanos > latency) {
+							overloaded++;
+							limit = Math.max(1, limit * BACKOFF_RATIO);
+							lastDecreaseNanos = now;
+						}
+					} else if (inFlight + 1 >= (int) limit / 2) {
+						// grow only when the limit is in use
+						limit = Math.min(maxLimit, limit + 1.0 / limit);
+					}
+				}
+				handOff(now, ready);
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			// complete outside of the lock, waiters enqueue their calls
+			for (Waiter waiter : ready) {
+				if (!waiter.future.complete(now)) {
+					// cancelled meanwhile
+					release(now, false, false);
+				}
+			}
+		}
+
+		/**
+		 * Give free slots to asynchronous waiters, in order
+		 */
+		private void handOff(long now, List<Waiter> ready) {
+			while (inFlight < (int) limit && !waiters.isEmpty()) {
+				Waiter waiter = waiters.poll();
+				queued--;
+				if (waiter.future.isDone()) {
+					continue;
+				}
+				inFlight++;
+				queueWaitNanos += now - waiter.enqueuedAt;
+				ready.add(waiter);
+			}
+		}
+
+		/**
+		 * @return scheme, host and port of the appliance
+		 */
+		public String getAppliance() {
+			return appliance;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getLimit() {
+			return read(() -> (int) limit);
+		}
+
+		public int getInFlight() {
+			return read(() -> inFlight);
+		}
+
+		public int getQueued() {
+			return read(() -> queued);
+		}
+
+		public int getMaxQueued() {
+			return read(() -> maxQueued);
+		}
+
+		public long getCompleted() {
+			return read(() -> completed);
+		}
+
+		public long getOverloaded() {
+			return read(() -> overloaded);
+		}
+
+		public long getRejected() {
+			return read(() -> rejected);
+		}
+
+		/**
+		 * @return average time queued requests waited for a slot
+		 */
+		public long getAverageQueueWaitMillis() {
+			return read(() -> queuedTotal > 0 ? TimeUnit.NANOSECONDS.toMillis(queueWaitNanos / queuedTotal) : 0L);
+		}
+
+		private <T> T read(Supplier<T> value) {
+			lock.lock();
+			try {
+				return value.get();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return read(() -> String.format("%s %s: limit %d, in flight %d, queued %d (max %d, avg wait %d ms), completed %d, overloaded %d, rejected %d",
+					appliance, name, (int) limit, inFlight, queued, maxQueued, getAverageQueueWaitMillis(), completed, overloaded, rejected));
+		}
+	}
+
+	/**
+	 * Asynchronous request waiting for a slot
+	 */
+	private static final class Waiter {
+		private final long enqueuedAt;
+		private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+		Waiter(long enqueuedAt) {
+			this.enqueuedAt = enqueuedAt;
+		}
+	}
+}
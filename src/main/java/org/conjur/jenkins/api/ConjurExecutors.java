@@ -0,0 +1,201 @@
+package org.conjur.jenkins.api;
+
+import hudson.init.Terminator;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.security.ImpersonatingExecutorService;
+import jenkins.util.InterceptingExecutorService;
+import jenkins.util.SystemProperties;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executor owned by the plugin for blocking Conjur work done in background: authentication, resource
+ * listing, secret fetches and catalog refreshes. On Java 21 and later every task runs on its own virtual
+ * thread, so waiting for Conjur does not occupy platform threads. On older runtimes, or when disabled with
+ * the {@code org.conjur.jenkins.api.ConjurExecutors.virtualThreads} system property, tasks run on a bounded
+ * pool of platform threads. Tasks run as SYSTEM. Callers needing the result of blocking work use
+ * {@link #call(Callable)}.
+ */
+public final class ConjurExecutors {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurExecutors.class.getName());
+
+	static final int PLATFORM_THREADS = 16;
+	static final int PLATFORM_QUEUE_SIZE = 1024;
+
+	private static final boolean VIRTUAL_THREADS_ENABLED =
+			SystemProperties.getBoolean(ConjurExecutors.class.getName() + ".virtualThreads", true);
+
+	private static final ExecutorService VIRTUAL_EXECUTOR = VIRTUAL_THREADS_ENABLED ? newVirtualThreadExecutor() : null;
+	private static final ExecutorService EXECUTOR = new TaskMarkingExecutorService(new ImpersonatingExecutorService(
+			VIRTUAL_EXECUTOR != null ? VIRTUAL_EXECUTOR : newPlatformExecutor(), ACL.SYSTEM2));
+
+	/**
+	 * Set while the current thread runs a task of the executor
+	 */
+	private static final ThreadLocal<Boolean> inExecutor = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	private ConjurExecutors() {
+		super();
+	}
+
+	/**
+	 * @return executor for blocking Conjur work
+	 */
+	public static ExecutorService get() {
+		return EXECUTOR;
+	}
+
+	/**
+	 * @return true if tasks run on virtual threads
+	 */
+	public static boolean usesVirtualThreads() {
+		return VIRTUAL_EXECUTOR != null;
+	}
+
+	/**
+	 * @return true if the current thread runs a task of the executor
+	 */
+	static boolean inExecutor() {
+		return inExecutor.get();
+	}
+
+	/**
+	 * Run blocking Conjur work on the executor and wait for its result. Work called from a task of the
+	 * executor, or rejected by a full executor, runs in the caller, so tasks never wait for queued tasks.
+	 *
+	 * @param task blocking work
+	 * @param <T> result type
+	 * @return result of the task
+	 * @throws IOException failure of the task
+	 * @throws InterruptedException if the caller is interrupted while waiting, the task is cancelled
+	 */
+	public static <T> T call(Callable<T> task) throws IOException, InterruptedException {
+		if (inExecutor()) {
+			return callInCaller(task);
+		}
+		Future<T> future;
+		try {
+			future = EXECUTOR.submit(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.log(Level.FINEST, String.format("Conjur task rejected, running in caller: %s", e));
+			return callInCaller(task);
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		} catch (ExecutionException e) {
+			throw rethrow(e.getCause());
+		}
+	}
+
+	private static <T> T callInCaller(Callable<T> task) throws IOException, InterruptedException {
+		try {
+			return task.call();
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw rethrow(e);
+		}
+	}
+
+	private static IOException rethrow(Throwable cause) throws InterruptedException {
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause instanceof InterruptedException) {
+			throw (InterruptedException) cause;
+		}
+		return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+	}
+
+	/**
+	 * Stop accepting tasks when Jenkins shuts down
+	 */
+	@Terminator
+	public static void shutdown() {
+		EXECUTOR.shutdownNow();
+	}
+
+	/**
+	 * Executors.newVirtualThreadPerTaskExecutor is looked up at runtime as the plugin is built for Java 11
+	 *
+	 * @return virtual thread per task executor or null if runtime does not support virtual threads
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService executor = (ExecutorService) factory.invoke(null);
+			LOGGER.log(Level.FINE, "Using virtual threads for Conjur requests");
+			return executor;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.log(Level.FINE, String.format("Virtual threads not available, using platform threads: %s", e));
+			return null;
+		}
+	}
+
+	/**
+	 * @return bounded pool of platform threads, idle threads are released
+	 */
+	static ExecutorService newPlatformExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(PLATFORM_QUEUE_SIZE), new NamingThreadFactory(new DaemonThreadFactory(), "ConjurIO"));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Marks threads running tasks of the executor, see {@link #inExecutor()}
+	 */
+	private static final class TaskMarkingExecutorService extends InterceptingExecutorService {
+
+		TaskMarkingExecutorService(ExecutorService base) {
+			super(base);
+		}
+
+		@Override
+		protected Runnable wrap(Runnable r) {
+			return () -> {
+				Boolean outer = inExecutor.get();
+				inExecutor.set(Boolean.TRUE);
+				try {
+					r.run();
+				} finally {
+					inExecutor.set(outer);
+				}
+			};
+		}
+
+		@Override
+		protected <V> Callable<V> wrap(Callable<V> r) {
+			return () -> {
+				Boolean outer = inExecutor.get();
+				inExecutor.set(Boolean.TRUE);
+				try {
+					return r.call();
+				} finally {
+					inExecutor.set(outer);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package org.conjur.jenkins.api;
+
+import hudson.model.Item;
+import hudson.model.ModelObject;
+import hudson.model.Run;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Outcomes of walks up the inheritance chain done to fetch secrets.
+ * For each item and request the level which last succeeded is remembered, so later fetches go straight
+ * to it. Identities which were refused access to a request are remembered for a short time, so the levels
+ * using them are skipped without calling Conjur.
+ */
+public final class ConjurInheritanceCache {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurInheritanceCache.class.getName());
+
+	static final long LEVEL_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	static final long DENIED_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	static final int MAX_ENTRIES = 10000;
+
+	private static final ConcurrentHashMap<String, CachedLevel> levels = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, Long> denied = new ConcurrentHashMap<>();
+
+	private ConjurInheritanceCache() {
+		super();
+	}
+
+	/**
+	 * Build key of the walk, builds of a job share the walk of the job
+	 *
+	 * @param context    context the walk starts from
+	 * @param requestKey variable id or ids of the request
+	 * @return key or null if the walk should not be cached
+	 */
+	static String walkKey(ModelObject context, String requestKey) {
+		if (context instanceof Run) {
+			return ((Run<?, ?>) context).getParent().getFullName() + "|" + requestKey;
+		} else if (context instanceof Item) {
+			return ((Item) context).getFullName() + "|" + requestKey;
+		}
+		return null;
+	}
+
+	/**
+	 * @param walkKey key of the walk
+	 * @return level which last succeeded or null if the walk has to start from its context
+	 */
+	static ModelObject getLevel(String walkKey) {
+		if (walkKey == null) {
+			return null;
+		}
+		CachedLevel cached = levels.get(walkKey);
+		if (cached == null) {
+			return null;
+		}
+		ModelObject level = cached.level.get();
+		if (level == null || System.currentTimeMillis() >= cached.expiresAt) {
+			levels.remove(walkKey, cached);
+			return null;
+		}
+		return level;
+	}
+
+	/**
+	 * @param walkKey key of the walk
+	 * @param start   context the walk started from
+	 * @param level   level which succeeded
+	 */
+	static void putLevel(String walkKey, ModelObject start, ModelObject level) {
+		if (walkKey == null) {
+			return;
+		}
+		if (level == start) {
+			// nothing to skip
+			levels.remove(walkKey);
+			return;
+		}
+		trim(levels.size());
+		levels.put(walkKey, new CachedLevel(level, System.currentTimeMillis() + LEVEL_TTL_MILLIS));
+	}
+
+	/**
+	 * @param walkKey key of the walk
+	 */
+	static void removeLevel(String walkKey) {
+		if (walkKey != null) {
+			levels.remove(walkKey);
+		}
+	}
+
+	/**
+	 * @param identityKey key of the identity of a level, see {@link ConjurTokenCache#cacheKey}
+	 * @param requestKey  variable id or ids of the request
+	 * @return true if the identity was recently refused access
+	 */
+	static boolean isDenied(String identityKey, String requestKey) {
+		if (identityKey == null) {
+			return false;
+		}
+		String key = identityKey + "|" + requestKey;
+		Long expiresAt = denied.get(key);
+		if (expiresAt == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() >= expiresAt) {
+			denied.remove(key, expiresAt);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param identityKey key of the identity which was refused access
+	 * @param requestKey  variable id or ids of the request
+	 */
+	static void putDenied(String identityKey, String requestKey) {
+		if (identityKey == null) {
+			return;
+		}
+		trim(denied.size());
+		denied.put(identityKey + "|" + requestKey, System.currentTimeMillis() + DENIED_TTL_MILLIS);
+	}
+
+	/**
+	 * Remove outcomes of walks starting at the item or items below it
+	 *
+	 * @param fullName full name of the item
+	 */
+	public static void invalidateItem(String fullName) {
+		String self = fullName + "|";
+		String below = fullName + "/";
+		levels.keySet().removeIf(key -> key.startsWith(self) || key.startsWith(below));
+	}
+
+	/**
+	 * Remove all outcomes
+	 */
+	public static void invalidateAll() {
+		levels.clear();
+		denied.clear();
+	}
+
+	private static void trim(int size) {
+		if (size >= MAX_ENTRIES) {
+			LOGGER.log(Level.FINE, "Too many cached inheritance outcomes, clearing");
+			invalidateAll();
+		}
+	}
+
+	/**
+	 * Level which succeeded, held weakly so that deleted items are not retained
+	 */
+	private static final class CachedLevel {
+		private final WeakReference<ModelObject> level;
+		private final long expiresAt;
+
+		CachedLevel(ModelObject level, long expiresAt) {
+			this.level = new WeakReference<>(level);
+			this.expiresAt = expiresAt;
+		}
+	}
+}
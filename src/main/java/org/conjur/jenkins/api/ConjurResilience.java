@@ -0,0 +1,254 @@
+package org.conjur.jenkins.api;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Retries and circuit breaking for requests sent to Conjur, installed on every client of {@link ConjurAPIUtils}
+ * in front of {@link ConjurConcurrencyLimiter}.
+ * Secret fetches, resource listings and authentication have no side effects, so they are retried on connection
+ * failures, timeouts and 429/502/503/504 answers, after a full jitter backoff. Each appliance has a circuit breaker
+ * which opens after consecutive failures; while open, requests fail at once instead of waiting on connect timeouts.
+ * After a while one probe request is let through, and its outcome closes or reopens the circuit.
+ * Asynchronous calls of {@link ConjurAsyncCall} use the same circuits, but are retried there so that backoff
+ * does not sleep on a dispatcher thread.
+ */
+public final class ConjurResilience implements Interceptor {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurResilience.class.getName());
+
+	static final int MAX_ATTEMPTS = 3;
+	static final long BACKOFF_BASE_MILLIS = 200;
+	static final long BACKOFF_CAP_MILLIS = TimeUnit.SECONDS.toMillis(2);
+	static final int FAILURE_THRESHOLD = 5;
+	static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final ConcurrentHashMap<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+
+	static final ConjurResilience INSTANCE = new ConjurResilience();
+
+	private ConjurResilience() {
+		super();
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		if (request.tag(ConjurConcurrencyLimiter.Permit.class) != null) {
+			// asynchronous calls are retried by ConjurAsyncCall, off the dispatcher thread
+			return chain.proceed(request);
+		}
+		CircuitBreaker circuit = circuitFor(request.url());
+		boolean retryable = isIdempotent(request);
+		for (int attempt = 1; ; attempt++) {
+			circuit.acquire();
+			Response response;
+			try {
+				response = chain.proceed(request);
+			} catch (IOException e) {
+				if (!isTransient(e)) {
+					circuit.onIgnored();
+					throw e;
+				}
+				circuit.onFailure();
+				if (!retryable || attempt >= MAX_ATTEMPTS || chain.call().isCanceled()) {
+					throw e;
+				}
+				LOGGER.log(Level.FINE, String.format("Retrying Conjur request %s after %s", request.url().encodedPath(), e));
+				backoff(attempt);
+				continue;
+			} catch (RuntimeException e) {
+				circuit.onIgnored();
+				throw e;
+			}
+
+			int code = response.code();
+			if (code >= 500) {
+				circuit.onFailure();
+			} else if (code == 429) {
+				// overloaded but reachable, the concurrency limiter backs off
+				circuit.onIgnored();
+			} else {
+				circuit.onSuccess();
+			}
+			if (!retryable || !isRetryableStatus(code) || attempt >= MAX_ATTEMPTS || chain.call().isCanceled()) {
+				return response;
+			}
+			LOGGER.log(Level.FINE, String.format("Retrying Conjur request %s after status %d", request.url().encodedPath(), code));
+			response.close();
+			backoff(attempt);
+		}
+	}
+
+	/**
+	 * Reads and authentication may be repeated, other requests are sent once
+	 *
+	 * @param request Conjur request
+	 * @return true if the request can safely be sent again
+	 */
+	static boolean isIdempotent(Request request) {
+		if ("GET".equals(request.method())) {
+			return true;
+		}
+		return "POST".equals(request.method())
+				&& request.url().encodedPath().endsWith("/authenticate")
+				&& (request.body() == null || !request.body().isOneShot());
+	}
+
+	/**
+	 * @param code HTTP status
+	 * @return true if the status is worth retrying
+	 */
+	static boolean isRetryableStatus(int code) {
+		return code == 429 || code == 502 || code == 503 || code == 504;
+	}
+
+	/**
+	 * Unknown hosts and TLS failures are configuration errors, requests waiting too long for a slot
+	 * or interrupted are given up
+	 *
+	 * @param e failure of a request
+	 * @return true if the failure may go away on its own
+	 */
+	static boolean isTransient(IOException e) {
+		if (e instanceof UnknownHostException || e instanceof SSLException
+				|| e instanceof ConjurConcurrencyLimiter.QueueTimeoutException) {
+			return false;
+		}
+		return !Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 * Full jitter: sleep a random time up to the exponential backoff
+	 *
+	 * @param attempt number of the attempt which failed, starting at 1
+	 * @return backoff in milliseconds
+	 */
+	static long backoffMillis(int attempt) {
+		long ceiling = Math.min(BACKOFF_CAP_MILLIS, BACKOFF_BASE_MILLIS << Math.min(attempt - 1, 20));
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	private static void backoff(int attempt) throws IOException {
+		try {
+			Thread.sleep(backoffMillis(attempt));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to retry Conjur request");
+		}
+	}
+
+	/**
+	 * @param url request URL
+	 * @return circuit breaker of the appliance the request is sent to
+	 */
+	static CircuitBreaker circuitFor(HttpUrl url) {
+		return circuits.computeIfAbsent(ConjurAPIUtils.applianceKey(url), CircuitBreaker::new);
+	}
+
+	/**
+	 * Close all circuits
+	 */
+	static void resetCircuits() {
+		circuits.clear();
+	}
+
+	/**
+	 * Thrown instead of sending a request to an appliance whose circuit is open
+	 */
+	public static final class CircuitOpenException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		CircuitOpenException(String message) {
+			super(message);
+		}
+	}
+
+	enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/**
+	 * Circuit breaker of one appliance
+	 */
+	static final class CircuitBreaker {
+		private final String appliance;
+		private final long openMillis;
+		private State state = State.CLOSED;
+		private int failures;
+		private long openedAt;
+		private boolean probing;
+
+		CircuitBreaker(String appliance) {
+			this(appliance, OPEN_MILLIS);
+		}
+
+		CircuitBreaker(String appliance, long openMillis) {
+			this.appliance = appliance;
+			this.openMillis = openMillis;
+		}
+
+		/**
+		 * @throws CircuitOpenException if the circuit is open or its probe is already running
+		 */
+		synchronized void acquire() throws CircuitOpenException {
+			if (state == State.OPEN) {
+				if (System.currentTimeMillis() - openedAt < openMillis) {
+					throw new CircuitOpenException(String.format("Conjur appliance %s is unavailable", appliance));
+				}
+				state = State.HALF_OPEN;
+				probing = false;
+			}
+			if (state == State.HALF_OPEN) {
+				if (probing) {
+					throw new CircuitOpenException(String.format("Conjur appliance %s is being probed", appliance));
+				}
+				LOGGER.log(Level.FINE, String.format("Probing Conjur appliance %s", appliance));
+				probing = true;
+			}
+		}
+
+		synchronized void onSuccess() {
+			if (state != State.CLOSED) {
+				LOGGER.log(Level.INFO, String.format("Conjur appliance %s is available again", appliance));
+			}
+			state = State.CLOSED;
+			failures = 0;
+			probing = false;
+		}
+
+		synchronized void onFailure() {
+			probing = false;
+			failures++;
+			if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= FAILURE_THRESHOLD)) {
+				LOGGER.log(Level.WARNING, String.format("Conjur appliance %s failed %d times, failing requests for %d s",
+						appliance, failures, TimeUnit.MILLISECONDS.toSeconds(openMillis)));
+				state = State.OPEN;
+				openedAt = System.currentTimeMillis();
+			}
+		}
+
+		/**
+		 * Outcome tells nothing about the appliance, let another probe through
+		 */
+		synchronized void onIgnored() {
+			probing = false;
+		}
+
+		synchronized State getState() {
+			return state;
+		}
+	}
+}
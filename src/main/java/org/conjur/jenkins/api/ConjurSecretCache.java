@@ -0,0 +1,191 @@
+package org.conjur.jenkins.api;
+
+import hudson.util.Secret;
+import jenkins.model.GlobalConfiguration;
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in cache of secret values fetched from Conjur.
+ * Values are keyed by the identity used to fetch them and the variable id, so a value is only returned
+ * for the identity which was allowed to read it. Values are held as {@link Secret} ciphertext and
+ * decrypted on every read. The cache is disabled unless a time to live is configured, and is bounded by
+ * entry count and total ciphertext size.
+ */
+public final class ConjurSecretCache {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurSecretCache.class.getName());
+
+	private static final ConcurrentHashMap<String, CachedSecret> secrets = new ConcurrentHashMap<>();
+	private static final AtomicLong weight = new AtomicLong();
+
+	private ConjurSecretCache() {
+		super();
+	}
+
+	/**
+	 * @param identityKey key of the identity which fetched the secret, see {@link ConjurTokenCache#cacheKey}
+	 * @param variableId  variable id
+	 * @return cached secret or null if there is none or cache is disabled
+	 */
+	static Secret get(String identityKey, String variableId) {
+		if (identityKey == null || variableId == null) {
+			return null;
+		}
+		String key = key(identityKey, variableId);
+		CachedSecret cached = secrets.get(key);
+		if (cached == null) {
+			return null;
+		}
+		if (!cached.isValid(System.currentTimeMillis()) || getSettings().ttlMillis <= 0) {
+			remove(key, cached);
+			return null;
+		}
+		LOGGER.log(Level.FINEST, String.format("Using cached secret %s", variableId));
+		return Secret.decrypt(cached.ciphertext);
+	}
+
+	/**
+	 * Cache secret fetched by the identity, does nothing when cache is disabled
+	 *
+	 * @param identityKey key of the identity which fetched the secret
+	 * @param variableId  variable id
+	 * @param secret      secret value
+	 */
+	static void put(String identityKey, String variableId, Secret secret) {
+		if (identityKey == null || variableId == null || secret == null) {
+			return;
+		}
+		Settings settings = getSettings();
+		if (settings.ttlMillis <= 0) {
+			return;
+		}
+		CachedSecret cached = new CachedSecret(secret.getEncryptedValue(), System.currentTimeMillis() + settings.ttlMillis);
+		if (cached.weight() > settings.maxWeight) {
+			return;
+		}
+		CachedSecret previous = secrets.put(key(identityKey, variableId), cached);
+		weight.addAndGet(cached.weight() - (previous != null ? previous.weight() : 0));
+		if (secrets.size() > settings.maxEntries || weight.get() > settings.maxWeight) {
+			evict(settings);
+		}
+	}
+
+	/**
+	 * Remove cached values of the variable for all identities
+	 *
+	 * @param variableId variable id
+	 */
+	public static void invalidate(String variableId) {
+		String suffix = "|" + variableId;
+		secrets.forEach((key, cached) -> {
+			if (key.endsWith(suffix)) {
+				remove(key, cached);
+			}
+		});
+	}
+
+	/**
+	 * Remove all cached values
+	 */
+	public static void invalidateAll() {
+		if (!secrets.isEmpty()) {
+			LOGGER.log(Level.FINEST, "Invalidating cached secrets");
+			secrets.forEach(ConjurSecretCache::remove);
+		}
+	}
+
+	/**
+	 * @return number of cached values
+	 */
+	static int size() {
+		return secrets.size();
+	}
+
+	private static String key(String identityKey, String variableId) {
+		return identityKey + "|" + variableId;
+	}
+
+	private static void remove(String key, CachedSecret cached) {
+		if (secrets.remove(key, cached)) {
+			weight.addAndGet(-cached.weight());
+		}
+	}
+
+	/**
+	 * Drop expired values, then values closest to expiration until the cache fits its limits
+	 */
+	private static synchronized void evict(Settings settings) {
+		long now = System.currentTimeMillis();
+		List<Map.Entry<String, CachedSecret>> entries = new ArrayList<>(secrets.entrySet());
+		entries.sort(Comparator.comparingLong(e -> e.getValue().expiresAt));
+		int evicted = 0;
+		for (Map.Entry<String, CachedSecret> entry : entries) {
+			if (entry.getValue().isValid(now) && secrets.size() <= settings.maxEntries && weight.get() <= settings.maxWeight) {
+				break;
+			}
+			remove(entry.getKey(), entry.getValue());
+			evicted++;
+		}
+		LOGGER.log(Level.FINEST, String.format("Evicted %d cached secrets", evicted));
+	}
+
+	private static Settings getSettings() {
+		GlobalConjurConfiguration globalConfig = null;
+		try {
+			globalConfig = GlobalConfiguration.all().get(GlobalConjurConfiguration.class);
+		} catch (IllegalStateException e) {
+			LOGGER.log(Level.FINEST, String.format("Secret cache disabled: %s", e));
+		}
+		if (globalConfig == null) {
+			return new Settings(0, 0, 0);
+		}
+		return new Settings(TimeUnit.SECONDS.toMillis(globalConfig.getSecretCacheTtlInSeconds()),
+				globalConfig.getSecretCacheMaxEntries(), globalConfig.getSecretCacheMaxSizeInKilobytes() * 1024L);
+	}
+
+	/**
+	 * Cache limits read from global configuration
+	 */
+	private static final class Settings {
+		private final long ttlMillis;
+		private final int maxEntries;
+		private final long maxWeight;
+
+		Settings(long ttlMillis, int maxEntries, long maxWeight) {
+			this.ttlMillis = ttlMillis;
+			this.maxEntries = maxEntries;
+			this.maxWeight = maxWeight;
+		}
+	}
+
+	/**
+	 * Encrypted secret value with its expiration
+	 */
+	private static final class CachedSecret {
+		private final String ciphertext;
+		private final long expiresAt;
+
+		CachedSecret(String ciphertext, long expiresAt) {
+			this.ciphertext = ciphertext;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isValid(long now) {
+			return now < expiresAt;
+		}
+
+		int weight() {
+			return ciphertext.length();
+		}
+	}
+}
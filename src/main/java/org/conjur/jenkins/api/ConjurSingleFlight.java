@@ -0,0 +1,122 @@
+package org.conjur.jenkins.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalescing of concurrent identical Conjur requests.
+ * The first caller for a key executes the request, callers arriving while it is in flight wait for
+ * its result instead of sending their own. Every caller gets its own copy of the result, so callers
+ * are free to clear it; the shared copy is cleared when the last caller has taken its copy.
+ */
+final class ConjurSingleFlight {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurSingleFlight.class.getName());
+
+	private static final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+	private ConjurSingleFlight() {
+		super();
+	}
+
+	/**
+	 * Request which result can be shared
+	 */
+	@FunctionalInterface
+	interface Call {
+		byte[] execute() throws IOException;
+	}
+
+	/**
+	 * Execute call or join the call in flight for the same key
+	 *
+	 * @param key  request key, null if request must not be shared
+	 * @param call request to execute
+	 * @return copy of the result
+	 * @throws IOException in case the request failed
+	 */
+	static byte[] execute(String key, Call call) throws IOException {
+		if (key == null) {
+			return call.execute();
+		}
+
+		Flight created = new Flight();
+		Flight flight = flights.compute(key, (k, existing) -> {
+			Flight joined = existing != null ? existing : created;
+			joined.parties.incrementAndGet();
+			return joined;
+		});
+
+		if (flight == created) {
+			try {
+				flight.result.complete(call.execute());
+			} catch (Throwable e) {
+				flight.result.completeExceptionally(e);
+			} finally {
+				// no caller can join once the flight is removed, so parties reach zero only after this
+				flights.remove(key, flight);
+			}
+		} else {
+			LOGGER.log(Level.FINEST, "Joining Conjur request in flight");
+		}
+
+		try {
+			byte[] shared = flight.await();
+			return shared != null ? Arrays.copyOf(shared, shared.length) : null;
+		} finally {
+			flight.release();
+		}
+	}
+
+	/**
+	 * @param key request key
+	 * @return number of callers sharing the request in flight
+	 */
+	static int parties(String key) {
+		Flight flight = flights.get(key);
+		return flight != null ? flight.parties.get() : 0;
+	}
+
+	/**
+	 * Request in flight with its callers
+	 */
+	private static final class Flight {
+		private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+		private final AtomicInteger parties = new AtomicInteger();
+
+		byte[] await() throws IOException {
+			try {
+				return result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for Conjur request");
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+
+		void release() {
+			if (parties.decrementAndGet() == 0 && result.isDone() && !result.isCompletedExceptionally()) {
+				byte[] shared = result.getNow(null);
+				if (shared != null) {
+					Arrays.fill(shared, (byte) 0);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package org.conjur.jenkins.api;
+
+import hudson.model.ModelObject;
+import jenkins.util.Timer;
+import org.conjur.jenkins.authenticator.AbstractAuthenticator;
+import org.conjur.jenkins.configuration.ConjurConfiguration;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of Conjur access tokens.
+ * Conjur access tokens are valid for 8 minutes, so one token is reused for all calls made with
+ * the same identity until a safety margin before its expiration. Tokens which are still in use
+ * are renewed in the background before they expire.
+ */
+public class ConjurTokenCache {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurTokenCache.class.getName());
+
+	static final long TOKEN_LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(8);
+	static final long SAFETY_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(60);
+	static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(2);
+	static final long REFRESH_PERIOD_SECONDS = 30;
+
+	private static final ConcurrentHashMap<String, CachedToken> tokens = new ConcurrentHashMap<>();
+	private static final AtomicBoolean refresherScheduled = new AtomicBoolean(false);
+
+	private ConjurTokenCache() {
+		super();
+	}
+
+	/**
+	 * Return cached access token for the identity described by conjurAuthn, authenticate if there is none
+	 *
+	 * @param authenticator authenticator used to obtain a new token
+	 * @param conjurAuthn   authentication info
+	 * @param context       current context
+	 * @return access token, caller is free to clear returned array
+	 * @throws IOException in case of error connecting to Conjur Server
+	 */
+	static byte[] getToken(AbstractAuthenticator authenticator, ConjurAuthnInfo conjurAuthn, ModelObject context)
+			throws IOException {
+		String key = cacheKey(authenticator, conjurAuthn);
+		if (key == null) {
+			return authenticator.getAuthorizationToken(conjurAuthn, context);
+		}
+
+		long now = System.currentTimeMillis();
+		CachedToken cached = tokens.get(key);
+		if (cached != null && cached.isValid(now)) {
+			LOGGER.log(Level.FINEST, "Using cached Conjur access token");
+			cached.lastUsed = now;
+			return cached.copy();
+		}
+
+		// callers authenticating with the same identity at the same time share one authentication
+		return ConjurSingleFlight.execute("token|" + key, () -> {
+			byte[] token = authenticator.getAuthorizationToken(conjurAuthn, context);
+			if (token != null && token.length > 0) {
+				tokens.put(key, new CachedToken(token, now, authenticator, conjurAuthn.getConjurConfiguration(), context));
+				scheduleRefresher();
+			}
+			return token;
+		});
+	}
+
+	/**
+	 * Return cached access token for the identity described by conjurAuthn, authenticate without blocking if there is none
+	 *
+	 * @param authenticator authenticator used to obtain a new token
+	 * @param conjurAuthn   authentication info
+	 * @param context       current context
+	 * @return future completed with the access token, caller is free to clear it
+	 */
+	static CompletableFuture<byte[]> getTokenAsync(AbstractAuthenticator authenticator, ConjurAuthnInfo conjurAuthn,
+													ModelObject context) {
+		String key = cacheKey(authenticator, conjurAuthn);
+		if (key == null) {
+			return authenticator.getAuthorizationTokenAsync(conjurAuthn, context);
+		}
+
+		long now = System.currentTimeMillis();
+		CachedToken cached = tokens.get(key);
+		if (cached != null && cached.isValid(now)) {
+			LOGGER.log(Level.FINEST, "Using cached Conjur access token");
+			cached.lastUsed = now;
+			return CompletableFuture.completedFuture(cached.copy());
+		}
+
+		return authenticator.getAuthorizationTokenAsync(conjurAuthn, context).thenApply(token -> {
+			if (token != null && token.length > 0) {
+				tokens.put(key, new CachedToken(token, now, authenticator, conjurAuthn.getConjurConfiguration(), context));
+				scheduleRefresher();
+			}
+			return token;
+		});
+	}
+
+	/**
+	 * Remove all cached tokens
+	 */
+	public static void invalidateAll() {
+		if (!tokens.isEmpty()) {
+			LOGGER.log(Level.FINEST, "Invalidating cached Conjur access tokens");
+			tokens.clear();
+		}
+	}
+
+	/**
+	 * @return number of cached tokens
+	 */
+	static int size() {
+		return tokens.size();
+	}
+
+	/**
+	 * Build cache key from appliance URL, account, authn path and identity.
+	 * Identity is login and API key digest for API key authentication or digest of JWT claims for JWT authentication.
+	 *
+	 * @return key or null if token should not be cached
+	 */
+	static String cacheKey(AbstractAuthenticator authenticator, ConjurAuthnInfo conjurAuthn) {
+		if (authenticator == null || conjurAuthn == null || conjurAuthn.getApplianceUrl() == null
+				|| conjurAuthn.getAccount() == null || conjurAuthn.getApiKey() == null) {
+			return null;
+		}
+
+		String identity;
+		if (conjurAuthn.getLogin() != null) {
+			identity = conjurAuthn.getLogin() + "|" + digest(conjurAuthn.getApiKey());
+		} else {
+			identity = jwtIdentity(conjurAuthn.getApiKey());
+		}
+		if (identity == null) {
+			return null;
+		}
+
+		return String.join("|", authenticator.getName(), conjurAuthn.getApplianceUrl(), conjurAuthn.getAccount(),
+				String.valueOf(conjurAuthn.getAuthnPath()), identity);
+	}
+
+	/**
+	 * Claims which change with every signed token and do not take part in its identity
+	 */
+	private static final Set<String> VOLATILE_CLAIMS = new HashSet<>(Arrays.asList("iat", "nbf", "exp", "jti"));
+
+	/**
+	 * Digest the claims of the "jwt=" request body sent to authn-jwt. Conjur hosts can be bound to any claim,
+	 * so all claims except the timestamps and token ID identify the caller, not only the subject.
+	 *
+	 * @param apiKey authentication request body
+	 * @return identity or null if the token cannot be read
+	 */
+	static String jwtIdentity(byte[] apiKey) {
+		try {
+			String jwt = new String(apiKey, StandardCharsets.US_ASCII);
+			if (jwt.startsWith("jwt=")) {
+				jwt = jwt.substring(4);
+			}
+			String[] parts = jwt.split("\\.");
+			if (parts.length < 2) {
+				return null;
+			}
+			JSONObject payload = new JSONObject(
+					new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+			StringBuilder claims = new StringBuilder();
+			for (String name : new TreeSet<>(payload.keySet())) {
+				if (!VOLATILE_CLAIMS.contains(name)) {
+					claims.append(name).append('=').append(payload.get(name)).append('\n');
+				}
+			}
+			return "jwt=" + digest(claims.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (Exception e) {
+			LOGGER.log(Level.FINEST, String.format("Unable to read JWT claims: %s", e));
+			return null;
+		}
+	}
+
+	static String digest(byte[] value) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(value));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void scheduleRefresher() {
+		if (refresherScheduled.compareAndSet(false, true)) {
+			Timer.get().scheduleWithFixedDelay(ConjurTokenCache::refreshTokens, REFRESH_PERIOD_SECONDS,
+					REFRESH_PERIOD_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Renew tokens which were used since they were fetched and are close to expiration,
+	 * drop tokens which are expired. Renewals run on the plugin executor, so the timer thread
+	 * does not wait for Conjur.
+	 */
+	static void refreshTokens() {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, CachedToken> entry : tokens.entrySet()) {
+			CachedToken cached = entry.getValue();
+			if (!cached.isValid(now)) {
+				tokens.remove(entry.getKey(), cached);
+			} else if (cached.needsRefresh(now)) {
+				try {
+					ConjurExecutors.get().execute(() -> refreshToken(entry.getKey(), cached, now));
+				} catch (RejectedExecutionException e) {
+					LOGGER.log(Level.FINEST, String.format("Conjur access token refresh rejected: %s", e));
+				}
+			}
+		}
+	}
+
+	private static void refreshToken(String key, CachedToken cached, long now) {
+		ModelObject context = cached.context.get();
+		if (context == null) {
+			return;
+		}
+		try {
+			ConjurAuthnInfo conjurAuthn = ConjurAPI.getConjurAuthnInfo(cached.configuration, context);
+			if (!key.equals(cacheKey(cached.authenticator, conjurAuthn))) {
+				return;
+			}
+			byte[] token = cached.authenticator.getAuthorizationToken(conjurAuthn, context);
+			if (token != null && token.length > 0) {
+				CachedToken refreshed = new CachedToken(token, now, cached.authenticator, cached.configuration, context);
+				if (tokens.replace(key, cached, refreshed)) {
+					LOGGER.log(Level.FINEST, "Conjur access token refreshed");
+				}
+				Arrays.fill(token, (byte) 0);
+			}
+		} catch (Exception e) {
+			LOGGER.log(Level.FINE, String.format("Unable to refresh Conjur access token: %s", e));
+		}
+	}
+
+	/**
+	 * Token with information needed to renew it
+	 */
+	private static final class CachedToken {
+		private final byte[] token;
+		private final long fetchedAt;
+		private final AbstractAuthenticator authenticator;
+		private final ConjurConfiguration configuration;
+		private final WeakReference<ModelObject> context;
+		private volatile long lastUsed;
+
+		CachedToken(byte[] token, long fetchedAt, AbstractAuthenticator authenticator,
+					ConjurConfiguration configuration, ModelObject context) {
+			this.token = Arrays.copyOf(token, token.length);
+			this.fetchedAt = fetchedAt;
+			this.authenticator = authenticator;
+			this.configuration = configuration;
+			this.context = new WeakReference<>(context);
+			this.lastUsed = fetchedAt;
+		}
+
+		boolean isValid(long now) {
+			return now < fetchedAt + TOKEN_LIFETIME_MILLIS - SAFETY_MARGIN_MILLIS;
+		}
+
+		boolean needsRefresh(long now) {
+			return lastUsed > fetchedAt
+					&& now >= fetchedAt + TOKEN_LIFETIME_MILLIS - SAFETY_MARGIN_MILLIS - REFRESH_AHEAD_MILLIS;
+		}
+
+		byte[] copy() {
+			return Arrays.copyOf(token, token.length);
+		}
+	}
+}
@@ -1,19 +1,92 @@
 package org.conjur.jenkins.authenticator;
 
 import hudson.model.ModelObject;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.conjur.jenkins.api.ConjurAPIUtils;
+import org.conjur.jenkins.api.ConjurAsyncCall;
 import org.conjur.jenkins.api.ConjurAuthnInfo;
+import org.conjur.jenkins.exceptions.AuthenticationConjurException;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  *  Abstract Authenticator
  */
 public abstract class AbstractAuthenticator {
 
+    private static final Logger LOGGER = Logger.getLogger(AbstractAuthenticator.class.getName());
+
     public abstract byte[] getAuthorizationToken(ConjurAuthnInfo conjurAuthn,
                                                  ModelObject context) throws IOException;
 
     public abstract void fillAuthnInfo(ConjurAuthnInfo conjurAuthn, ModelObject context );
 
     public abstract String getName();
+
+    /**
+     * Authenticate without blocking the calling thread, the request is executed on the OkHttp dispatcher
+     *
+     * @param conjurAuthn ConjurAuthnInfo with information used to authenticate
+     * @param context     Jenkins context object. Current context from which call is made
+     * @return future completed with the authorization token
+     */
+    public CompletableFuture<byte[]> getAuthorizationTokenAsync(ConjurAuthnInfo conjurAuthn, ModelObject context) {
+        Request request = buildAuthenticationRequest(conjurAuthn);
+        if (request == null) {
+            // authenticator without HTTP request of its own, run the blocking call
+            try {
+                return CompletableFuture.completedFuture(getAuthorizationToken(conjurAuthn, context));
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurAuthn.getConjurConfiguration());
+        return ConjurAsyncCall.enqueue(client, request, AbstractAuthenticator::readAuthorizationToken);
+    }
+
+    /**
+     * Build request sent to the Conjur authenticator
+     *
+     * @param conjurAuthn ConjurAuthnInfo with information used to authenticate
+     * @return request or null if it cannot be built from conjurAuthn
+     */
+    protected Request buildAuthenticationRequest(ConjurAuthnInfo conjurAuthn) {
+        return null;
+    }
+
+    /**
+     * Read authorization token from the response of the Conjur authenticator
+     *
+     * @param response authenticator response
+     * @return authorization token
+     * @throws IOException in case of error response, AuthenticationConjurException when authentication was refused
+     */
+    protected static byte[] readAuthorizationToken(Response response) throws IOException {
+        byte[] resultingToken = null;
+        ResponseBody body = response.body();
+        if (body != null) {
+            byte[] respMessage = body.string().getBytes(StandardCharsets.UTF_8);
+            resultingToken = Base64.getEncoder().withoutPadding()
+                    .encodeToString(respMessage).getBytes(StandardCharsets.US_ASCII);
+            LOGGER.log(Level.FINEST,
+                    () -> String.format("Conjur Authenticate response %d - %s", response.code(), response.message()));
+        }
+
+        if (response.code() != 200) {
+            if (response.code() == 401) {
+                throw new AuthenticationConjurException(response.code());
+            } else {
+                throw new IOException("[" + response.code() + "] - " + response.message());
+            }
+        }
+        return resultingToken;
+    }
 }
@@ -11,12 +11,10 @@ import org.conjur.jenkins.api.ConjurAPI;
 import org.conjur.jenkins.api.ConjurAPIUtils;
 import org.conjur.jenkins.api.ConjurAuthnInfo;
 import org.conjur.jenkins.configuration.ConjurConfiguration;
-import org.conjur.jenkins.exceptions.AuthenticationConjurException;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -43,47 +41,43 @@ public class ConjurAPIKeyAuthenticator extends AbstractAuthenticator {
      * @throws IOException
      */
     @Override
-    @SuppressWarnings("deprecation")
     public byte[] getAuthorizationToken(ConjurAuthnInfo conjurAuthn, ModelObject context) throws IOException {
         byte[] resultingToken = null;
 
         LOGGER.log(Level.FINEST, String.format("getAuthorizationToken: authnPath %s account %s conjurAuthn.applianceUrl %s",
                 conjurAuthn.getAuthnPath(), conjurAuthn.getAccount(), conjurAuthn.getApplianceUrl()));
 
-        Request request = null;
-        if (conjurAuthn.getApiKey() != null && conjurAuthn.getLogin() != null) {
-            String urlstring = String.format("%s/%s/%s/%s/authenticate", conjurAuthn.getApplianceUrl(), conjurAuthn.getAuthnPath(),
-                    conjurAuthn.getAccount(), URLEncoder.encode(conjurAuthn.getLogin(), "utf-8"));
-            request = new Request.Builder()
-                    .url(urlstring)
-                    .post(RequestBody.create(MediaType.parse("text/plain"), conjurAuthn.getApiKey())).build();
-        }
+        Request request = buildAuthenticationRequest(conjurAuthn);
 
         if (request != null) {
             OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurAuthn.getConjurConfiguration());
             Response response = client.newCall(request).execute();
-            ResponseBody body = response.body();
-            if (body != null) {
-                byte[] respMessage = body.string().getBytes(StandardCharsets.UTF_8);
-                resultingToken = Base64.getEncoder().withoutPadding()
-                        .encodeToString(respMessage).getBytes(StandardCharsets.US_ASCII);
-                LOGGER.log(Level.FINEST,
-                        () -> String.format("Conjur Authenticate response %d - %s", response.code(), response.message()));
-            }
-
-            if (response.code() != 200) {
-                if (response.code() == 401) {
-                    throw new AuthenticationConjurException(response.code());
-                } else {
-                    throw new IOException("[" + response.code() + "] - " + response.message());
-                }
-            }
+            resultingToken = readAuthorizationToken(response);
         } else {
             LOGGER.log(Level.SEVERE, "Cannot create http call. Authentication failed.");
         }
         return resultingToken;
     }
 
+    /**
+     * Build request for authn with login and API key
+     *
+     * @param conjurAuthn ConjurAuthnInfo with information used to authenticate
+     * @return request or null if login or API key is missing
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    protected Request buildAuthenticationRequest(ConjurAuthnInfo conjurAuthn) {
+        if (conjurAuthn.getApiKey() == null || conjurAuthn.getLogin() == null) {
+            return null;
+        }
+        String urlstring = String.format("%s/%s/%s/%s/authenticate", conjurAuthn.getApplianceUrl(), conjurAuthn.getAuthnPath(),
+                conjurAuthn.getAccount(), URLEncoder.encode(conjurAuthn.getLogin(), StandardCharsets.UTF_8));
+        return new Request.Builder()
+                .url(urlstring)
+                .post(RequestBody.create(MediaType.parse("text/plain"), conjurAuthn.getApiKey())).build();
+    }
+
     /**
      * Fill authninfo structure
      * @param conjurAuthn authentication configuration class
@@ -6,12 +6,10 @@ import okhttp3.*;
 import org.conjur.jenkins.api.ConjurAPIUtils;
 import org.conjur.jenkins.api.ConjurAuthnInfo;
 import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
-import org.conjur.jenkins.exceptions.AuthenticationConjurException;
 import org.conjur.jenkins.jwtauth.impl.JwtToken;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,45 +35,43 @@ public class ConjurJWTAuthenticator extends AbstractAuthenticator {
      * @throws IOException
      */
     @Override
-    @SuppressWarnings("deprecation")
     public byte[] getAuthorizationToken(ConjurAuthnInfo conjurAuthn, ModelObject context) throws IOException {
         byte[] resultingToken = null;
 
         LOGGER.log(Level.FINEST, String.format("Authenticating with Conjur (JWT) conjurAuthn.authnPath %s conjurAuthn.account %s conjurAuthn.applianceUrl %s",
                 conjurAuthn.getAuthnPath(), conjurAuthn.getAccount(), conjurAuthn.getApplianceUrl()));
 
-        Request request = null;
-        if (conjurAuthn.getApiKey() != null && conjurAuthn.getAuthnPath() != null) {
-            String authnPath = !conjurAuthn.getAuthnPath().contains("/") ? "authn-jwt/" + conjurAuthn.getAuthnPath() : conjurAuthn.getAuthnPath();
-
-            request = new Request.Builder().url(String.format("%s/%s/%s/authenticate",
-                    conjurAuthn.getApplianceUrl(), authnPath, conjurAuthn.getAccount()))
-                    .post(RequestBody.create(MediaType.parse("text/plain"), conjurAuthn.getApiKey())).build();
-        }
+        Request request = buildAuthenticationRequest(conjurAuthn);
 
         if (request != null) {
             OkHttpClient client = ConjurAPIUtils.getHttpClient(conjurAuthn.getConjurConfiguration());
             Response response = client.newCall(request).execute();
-            ResponseBody body = response.body();
-            if (body != null) {
-                byte[] respMessage = body.string().getBytes(StandardCharsets.UTF_8);
-                resultingToken = Base64.getEncoder().withoutPadding().encodeToString(respMessage).getBytes(StandardCharsets.US_ASCII);
-                LOGGER.log(Level.FINEST, () -> "Conjur Authenticate response " + response.code() + " - " + response.message());
-            }
-
-            if (response.code() != 200) {
-                if (response.code() == 401) {
-                    throw new AuthenticationConjurException(response.code());
-                } else {
-                    throw new IOException("[" + response.code() + "] - " + response.message());
-                }
-            }
+            resultingToken = readAuthorizationToken(response);
         } else {
             LOGGER.log(Level.SEVERE, "Cannot create http call. JWTAuthentication failed.");
         }
         return resultingToken;
     }
 
+    /**
+     * Build request for authn-jwt with signed JWT
+     *
+     * @param conjurAuthn ConjurAuthnInfo with information used to authenticate
+     * @return request or null if JWT or authenticator path is missing
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    protected Request buildAuthenticationRequest(ConjurAuthnInfo conjurAuthn) {
+        if (conjurAuthn.getApiKey() == null || conjurAuthn.getAuthnPath() == null) {
+            return null;
+        }
+        String authnPath = !conjurAuthn.getAuthnPath().contains("/") ? "authn-jwt/" + conjurAuthn.getAuthnPath() : conjurAuthn.getAuthnPath();
+
+        return new Request.Builder().url(String.format("%s/%s/%s/authenticate",
+                conjurAuthn.getApplianceUrl(), authnPath, conjurAuthn.getAccount()))
+                .post(RequestBody.create(MediaType.parse("text/plain"), conjurAuthn.getApiKey())).build();
+    }
+
     /**
      * Fill authninfo structure
      *
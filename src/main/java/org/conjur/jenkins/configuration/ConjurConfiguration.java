@@ -14,6 +14,7 @@ import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang.StringUtils;
+import org.conjur.jenkins.api.ConjurAPIUtils;
 import org.conjur.jenkins.jwtauth.impl.JwtToken;
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -23,6 +24,8 @@ import org.kohsuke.stapler.verb.POST;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,8 +47,30 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
     private String account;
     private String credentialID;
     private String certificateCredentialID;
-    private CertificateCredentials certificateCredentials;
     private String ownerFullName;
+    private String resourcePathPrefix;
+
+    /**
+     * @deprecated certificate credentials are resolved from certificateCredentialID, kept to read old configurations
+     */
+    @Deprecated
+    private transient CertificateCredentials certificateCredentials;
+
+    /**
+     * Certificate credentials resolved lazily from certificateCredentialID
+     */
+    private transient volatile ResolvedCertificate resolvedCertificate;
+
+    /**
+     * Incremented when credentials change, resolved certificates of older generation are looked up again
+     */
+    private static final AtomicLong certificateGeneration = new AtomicLong();
+
+    /**
+     * Set while certificate credentials are looked up, ConjurCredentialProvider needs the certificate
+     * to list its own credentials so it is skipped by such lookup
+     */
+    private static final ThreadLocal<Boolean> resolvingCertificate = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
     public ConjurConfiguration() {
     }
@@ -146,10 +171,67 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
     }
 
     /**
+     * Certificate credentials are looked up on first use and remembered for the credential ID
+     *
      * @return the currently certification credentails, if any
      */
     public CertificateCredentials getCertificateCredentials() {
-        return certificateCredentials;
+        ResolvedCertificate resolved = resolveCertificate();
+        return resolved != null ? resolved.credentials : null;
+    }
+
+    /**
+     * Fingerprint is calculated once for the resolved certificate credentials
+     *
+     * @return SHA-256 fingerprint of the certificate credentials, null if there are none
+     */
+    public String getCertificateFingerprint() {
+        ResolvedCertificate resolved = resolveCertificate();
+        return resolved != null && resolved.credentials != null ? resolved.getFingerprint() : null;
+    }
+
+    private ResolvedCertificate resolveCertificate() {
+        ResolvedCertificate resolved = resolvedCertificate;
+        if (resolved != null && resolved.isCurrent(certificateCredentialID)) {
+            return resolved;
+        }
+        if (certificateCredentialID == null) {
+            return null;
+        }
+
+        LOGGER.log(Level.FINEST, String.format("Resolving certificate credentials %s", certificateCredentialID));
+        long generation = certificateGeneration.get();
+        Boolean resolving = resolvingCertificate.get();
+        resolvingCertificate.set(Boolean.TRUE);
+        CertificateCredentials credentials;
+        try {
+            Item owner = ownerFullName != null ? Jenkins.get().getItemByFullName(ownerFullName) : null;
+            credentials = CredentialsMatchers.firstOrNull(owner != null
+                            ? CredentialsProvider.lookupCredentials(CertificateCredentials.class, owner, ACL.SYSTEM,
+                                    Collections.<DomainRequirement>emptyList())
+                            : CredentialsProvider.lookupCredentials(CertificateCredentials.class, Jenkins.get(),
+                                    ACL.SYSTEM, Collections.<DomainRequirement>emptyList()),
+                    CredentialsMatchers.withId(certificateCredentialID));
+        } finally {
+            resolvingCertificate.set(resolving);
+        }
+        resolved = new ResolvedCertificate(certificateCredentialID, generation, credentials);
+        resolvedCertificate = resolved;
+        return resolved;
+    }
+
+    /**
+     * @return true if certificate credentials are being looked up by the current thread
+     */
+    public static boolean isResolvingCertificate() {
+        return resolvingCertificate.get();
+    }
+
+    /**
+     * Forget all resolved certificate credentials, called when credentials change
+     */
+    public static void invalidateCertificateCredentials() {
+        certificateGeneration.incrementAndGet();
     }
 
     /**
@@ -167,6 +249,24 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
         return ownerFullName;
     }
 
+    /**
+     * @return path prefix of variables listed as Jenkins credentials, if any
+     */
+    public String getResourcePathPrefix() {
+        return resourcePathPrefix;
+    }
+
+    /**
+     * Together with {@link #getResourcePathPrefix}, binds to entry in
+     * {@code config.jelly}. When set, only variables under this path are listed as credentials.
+     *
+     * @param resourcePathPrefix the new value of variable path prefix
+     */
+    @DataBoundSetter
+    public void setResourcePathPrefix(String resourcePathPrefix) {
+        this.resourcePathPrefix = StringUtils.trimToNull(resourcePathPrefix);
+    }
+
     /**
      * Retrieve information about choosen authenticator
      *
@@ -212,18 +312,11 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
      */
     @DataBoundSetter
     public void setCertificateCredentialID(String certificateCredentialID) {
-        this.certificateCredentialID = certificateCredentialID;
-
         if (certificateCredentialID == null) {
             LOGGER.log(Level.FINEST, "CertificationID is null");
-            return;
         }
-
-        // we have to be aware, this function is calling getCredentials in provider
-        this.certificateCredentials = CredentialsMatchers.firstOrNull(
-                CredentialsProvider.lookupCredentials(CertificateCredentials.class, Jenkins.get(), ACL.SYSTEM,
-                        Collections.<DomainRequirement>emptyList()),
-                CredentialsMatchers.withId(certificateCredentialID));
+        // credentials are resolved on first use, see getCertificateCredentials()
+        this.certificateCredentialID = certificateCredentialID;
     }
 
     /**
@@ -232,7 +325,7 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
      */
     @DataBoundSetter
     public void setCertificateCredentials(CertificateCredentials certificateCredentials) {
-        this.certificateCredentials = certificateCredentials;
+        this.resolvedCertificate = new ResolvedCertificate(certificateCredentialID, certificateGeneration.get(), certificateCredentials);
     }
 
     /**
@@ -303,6 +396,20 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
         this.inheritFromParent = inheritFromParent;
     }
 
+    /**
+     * Migrate certificate credentials serialized by older versions to resolved certificate
+     *
+     * @return this configuration
+     */
+    @SuppressWarnings("deprecation")
+    protected Object readResolve() {
+        if (certificateCredentials != null) {
+            resolvedCertificate = new ResolvedCertificate(certificateCredentialID, certificateGeneration.get(), certificateCredentials);
+            certificateCredentials = null;
+        }
+        return this;
+    }
+
     /**
      * @param config Create copy of ConjurConfiguration
      */
@@ -312,6 +419,8 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
         this.ownerFullName = config.getOwnerFullName();
         this.certificateCredentialID = config.getCertificateCredentialID();
         this.applianceURL = config.getApplianceURL();
+        this.resourcePathPrefix = config.getResourcePathPrefix();
+        this.resolvedCertificate = config.resolvedCertificate;
     }
 
     /**
@@ -336,12 +445,47 @@ public class ConjurConfiguration extends AbstractDescribableImpl<ConjurConfigura
         if (StringUtils.isBlank(result.getCredentialID())) {
             result.setCredentialID(parent.getCredentialID());
         }
-        if (result.certificateCredentials == null) {
-            result.setCertificateCredentials(parent.getCertificateCredentials());
+        // reuse certificate already resolved by parent, lookup is left to first use
+        ResolvedCertificate parentCertificate = parent.resolvedCertificate;
+        if (result.resolvedCertificate == null && parentCertificate != null
+                && parentCertificate.isCurrent(result.getCertificateCredentialID())) {
+            result.resolvedCertificate = parentCertificate;
         }
         if (StringUtils.isBlank(result.getApplianceURL())) {
             result.setApplianceURL(parent.getApplianceURL());
         }
+        if (StringUtils.isBlank(result.getResourcePathPrefix())) {
+            result.setResourcePathPrefix(parent.getResourcePathPrefix());
+        }
         return result;
     }
+
+    /**
+     * Certificate credentials resolved for credential ID
+     */
+    private static final class ResolvedCertificate {
+        private final String credentialID;
+        private final long generation;
+        private final CertificateCredentials credentials;
+        private volatile String fingerprint;
+
+        ResolvedCertificate(String credentialID, long generation, CertificateCredentials credentials) {
+            this.credentialID = credentialID;
+            this.generation = generation;
+            this.credentials = credentials;
+        }
+
+        boolean isCurrent(String currentCredentialID) {
+            return Objects.equals(credentialID, currentCredentialID) && generation == certificateGeneration.get();
+        }
+
+        String getFingerprint() {
+            String result = fingerprint;
+            if (result == null) {
+                result = ConjurAPIUtils.certificateFingerprint(credentials);
+                fingerprint = result;
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package org.conjur.jenkins.configuration;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import jenkins.model.Jenkins;
+import org.conjur.jenkins.api.ConjurAPI;
+import org.conjur.jenkins.api.ConjurAPIUtils;
+import org.conjur.jenkins.api.ConjurInheritanceCache;
+import org.conjur.jenkins.api.ConjurSecretCache;
+import org.conjur.jenkins.api.ConjurTokenCache;
+import org.conjur.jenkins.credentials.ConjurCredentialStoreRegistry;
+import org.conjur.jenkins.jwtauth.impl.JwtToken;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Listens for saved objects which may hold Conjur configuration or certificate credentials
+ * and invalidates cached data derived from them. Folders and jobs are saved for many reasons,
+ * their caches are only dropped when their Conjur configuration actually changed.
+ */
+@Extension
+public class ConjurConfigurationChangeListener extends SaveableListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ConjurConfigurationChangeListener.class.getName());
+
+    /**
+     * Last saved Conjur configuration of folders and jobs, as XML, keyed by full name
+     */
+    private static final ConcurrentHashMap<String, String> itemConfigurations = new ConcurrentHashMap<>();
+
+    /**
+     * Invalidate caches when global configuration or system credentials are saved, or when Conjur
+     * configuration of a folder or job changes
+     *
+     * @param o    saved object
+     * @param file file the object was saved to
+     */
+    @Override
+    public void onChange(Saveable o, XmlFile file) {
+        if (o instanceof GlobalConjurConfiguration || o instanceof SystemCredentialsProvider) {
+            LOGGER.log(Level.FINEST, String.format("Configuration changed: %s", o.getClass().getName()));
+            invalidateCaches();
+        } else if (o instanceof AbstractFolder || o instanceof Job) {
+            Item item = (Item) o;
+            if (conjurConfigurationChanged(item)) {
+                LOGGER.log(Level.FINEST, String.format("Conjur configuration of %s changed", item.getFullName()));
+                invalidateItemCaches(item.getFullName());
+            }
+        }
+    }
+
+    /**
+     * Compare Conjur configuration of the item with the one it had when last saved
+     *
+     * @param item saved folder or job
+     * @return true if the configuration was added, changed or removed
+     */
+    static boolean conjurConfigurationChanged(Item item) {
+        Object property = null;
+        if (item instanceof AbstractFolder) {
+            property = ((AbstractFolder<?>) item).getProperties().get(FolderConjurConfiguration.class);
+        } else if (item instanceof Job) {
+            property = ((Job<?, ?>) item).getProperty(ConjurJITJobProperty.class);
+        }
+
+        String fullName = item.getFullName();
+        String previous;
+        if (property == null) {
+            previous = itemConfigurations.remove(fullName);
+            return previous != null;
+        }
+        String current = Jenkins.XSTREAM2.toXML(property);
+        previous = itemConfigurations.put(fullName, current);
+        return !current.equals(previous);
+    }
+
+    /**
+     * Forget the saved configuration of the item and items below it
+     *
+     * @param fullName full name of deleted or moved item
+     */
+    static void forgetItem(String fullName) {
+        String prefix = fullName + "/";
+        itemConfigurations.keySet().removeIf(k -> k.equals(fullName) || k.startsWith(prefix));
+    }
+
+    /**
+     * Invalidate caches of the item and items below it, other caches are keyed by Conjur identity
+     * and are not used once the configuration points to another one
+     *
+     * @param fullName full name of the item
+     */
+    public static void invalidateItemCaches(String fullName) {
+        ConjurAPI.invalidateConfigurationCache(fullName);
+        ConjurInheritanceCache.invalidateItem(fullName);
+        ConjurCredentialStoreRegistry.removeItem(fullName);
+    }
+
+    /**
+     * Invalidate all caches built from Conjur configuration
+     */
+    public static void invalidateCaches() {
+        ConjurAPI.invalidateConfigurationCache();
+        ConjurAPI.invalidateResourceListings();
+        ConjurConfiguration.invalidateCertificateCredentials();
+        ConjurAPIUtils.invalidateHttpClients();
+        ConjurTokenCache.invalidateAll();
+        ConjurSecretCache.invalidateAll();
+        ConjurInheritanceCache.invalidateAll();
+        JwtToken.invalidateSignedTokens();
+    }
+}
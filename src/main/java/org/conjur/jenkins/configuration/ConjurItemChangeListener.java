@@ -0,0 +1,41 @@
+package org.conjur.jenkins.configuration;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Listens for moved, renamed and deleted items. Effective Conjur configuration of an item
+ * depends on its parent folders, so resolved configurations, inheritance outcomes and
+ * credential stores of the item and items below it are removed.
+ */
+@Extension
+public class ConjurItemChangeListener extends ItemListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ConjurItemChangeListener.class.getName());
+
+    /**
+     * @param item        moved or renamed item
+     * @param oldFullName previous full name
+     * @param newFullName current full name
+     */
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        LOGGER.log(Level.FINEST, String.format("Item moved from %s to %s", oldFullName, newFullName));
+        ConjurConfigurationChangeListener.invalidateItemCaches(oldFullName);
+        ConjurConfigurationChangeListener.forgetItem(oldFullName);
+    }
+
+    /**
+     * @param item deleted item
+     */
+    @Override
+    public void onDeleted(Item item) {
+        LOGGER.log(Level.FINEST, String.format("Item deleted %s", item.getFullName()));
+        ConjurConfigurationChangeListener.invalidateItemCaches(item.getFullName());
+        ConjurConfigurationChangeListener.forgetItem(item.getFullName());
+    }
+}
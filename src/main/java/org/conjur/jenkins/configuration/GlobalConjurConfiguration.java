@@ -25,11 +25,22 @@ public class GlobalConjurConfiguration extends GlobalConfiguration implements Se
 
     private static final long serialVersionUID = 1L;
 
+    public static final long DEFAULT_CREDENTIAL_CACHE_TTL_IN_SECONDS = 120;
+    public static final long DEFAULT_CREDENTIAL_CACHE_MAX_STALENESS_IN_SECONDS = 600;
+    public static final int DEFAULT_SECRET_CACHE_MAX_ENTRIES = 1000;
+    public static final int DEFAULT_SECRET_CACHE_MAX_SIZE_IN_KILOBYTES = 1024;
+
     private ConjurConfiguration conjurConfiguration;
     private String authWebServiceId = "";
     private String jwtAudience = "cyberark-conjur";
     private long keyLifetimeInMinutes = 60;
     private long tokenDurationInSeconds = 120;
+    private int jwtReusePercentage = 50;
+    private long credentialCacheTtlInSeconds = DEFAULT_CREDENTIAL_CACHE_TTL_IN_SECONDS;
+    private long credentialCacheMaxStalenessInSeconds = DEFAULT_CREDENTIAL_CACHE_MAX_STALENESS_IN_SECONDS;
+    private long secretCacheTtlInSeconds;
+    private int secretCacheMaxEntries = DEFAULT_SECRET_CACHE_MAX_ENTRIES;
+    private int secretCacheMaxSizeInKilobytes = DEFAULT_SECRET_CACHE_MAX_SIZE_IN_KILOBYTES;
     private String selectAuthenticator = "APIKey";
     private Boolean enableIdentityFormatFieldsFromToken = false;
     private String identityFormatFieldsFromToken = "jenkins_full_name";
@@ -144,6 +155,103 @@ public class GlobalConjurConfiguration extends GlobalConfiguration implements Se
         save();
     }
 
+    /**
+     * @return part of the token duration, in percent, during which a signed JWT is reused
+     **/
+    public int getJwtReusePercentage() {
+        return jwtReusePercentage;
+    }
+
+    /**
+     * set part of the token duration, in percent, during which a signed JWT is reused. 0 disables reuse.
+     **/
+    @DataBoundSetter
+    public void setJwtReusePercentage(int jwtReusePercentage) {
+        this.jwtReusePercentage = Math.max(0, Math.min(90, jwtReusePercentage));
+        save();
+    }
+
+    /**
+     * @return time in seconds after which the credentials listed from Conjur are refreshed
+     **/
+    public long getCredentialCacheTtlInSeconds() {
+        return credentialCacheTtlInSeconds;
+    }
+
+    /**
+     * set time in seconds after which the credentials listed from Conjur are refreshed
+     **/
+    @DataBoundSetter
+    public void setCredentialCacheTtlInSeconds(long credentialCacheTtlInSeconds) {
+        this.credentialCacheTtlInSeconds = Math.max(1, credentialCacheTtlInSeconds);
+        save();
+    }
+
+    /**
+     * @return time in seconds after expiration during which listed credentials are served while being refreshed in background
+     **/
+    public long getCredentialCacheMaxStalenessInSeconds() {
+        return credentialCacheMaxStalenessInSeconds;
+    }
+
+    /**
+     * set time in seconds after expiration during which listed credentials are served while being refreshed in background.
+     * 0 makes the refresh synchronous.
+     **/
+    @DataBoundSetter
+    public void setCredentialCacheMaxStalenessInSeconds(long credentialCacheMaxStalenessInSeconds) {
+        this.credentialCacheMaxStalenessInSeconds = Math.max(0, credentialCacheMaxStalenessInSeconds);
+        save();
+    }
+
+    /**
+     * @return time in seconds during which secret values fetched from Conjur are reused, 0 when the cache is disabled
+     **/
+    public long getSecretCacheTtlInSeconds() {
+        return secretCacheTtlInSeconds;
+    }
+
+    /**
+     * set time in seconds during which secret values fetched from Conjur are reused. 0 disables the cache.
+     **/
+    @DataBoundSetter
+    public void setSecretCacheTtlInSeconds(long secretCacheTtlInSeconds) {
+        this.secretCacheTtlInSeconds = Math.max(0, secretCacheTtlInSeconds);
+        save();
+    }
+
+    /**
+     * @return maximum number of cached secret values
+     **/
+    public int getSecretCacheMaxEntries() {
+        return secretCacheMaxEntries;
+    }
+
+    /**
+     * set maximum number of cached secret values
+     **/
+    @DataBoundSetter
+    public void setSecretCacheMaxEntries(int secretCacheMaxEntries) {
+        this.secretCacheMaxEntries = Math.max(1, secretCacheMaxEntries);
+        save();
+    }
+
+    /**
+     * @return maximum total size in kilobytes of cached encrypted secret values
+     **/
+    public int getSecretCacheMaxSizeInKilobytes() {
+        return secretCacheMaxSizeInKilobytes;
+    }
+
+    /**
+     * set maximum total size in kilobytes of cached encrypted secret values
+     **/
+    @DataBoundSetter
+    public void setSecretCacheMaxSizeInKilobytes(int secretCacheMaxSizeInKilobytes) {
+        this.secretCacheMaxSizeInKilobytes = Math.max(1, secretCacheMaxSizeInKilobytes);
+        save();
+    }
+
     /**
      * set the Conjur Configuration parameters
      **/
@@ -25,7 +25,10 @@ import hudson.Launcher;
 import hudson.model.Descriptor;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.util.Secret;
 import jenkins.model.Jenkins;
+import org.conjur.jenkins.api.ConjurExecutors;
+import org.conjur.jenkins.credentials.ConjurCredentialIdRequirement;
 
 /**
  * ConjurSecretCredentialsBinding entry level class to when build is invoked to
@@ -85,8 +88,9 @@ public class ConjurSecretCredentialsBinding extends MultiBinding<ConjurSecretCre
 
 			conjurSecretCredential.setContext(build);
 
-			multiEnv = new MultiEnvironment(
-					Collections.singletonMap(variable, conjurSecretCredential.getSecret().getPlainText()));
+			// fetch on the plugin executor, the build thread only waits for the secret
+			Secret secret = ConjurExecutors.call(conjurSecretCredential::getSecret);
+			multiEnv = new MultiEnvironment(Collections.singletonMap(variable, secret.getPlainText()));
 
 		}catch( CredentialNotFoundException e )
 		{
@@ -117,7 +121,8 @@ public class ConjurSecretCredentialsBinding extends MultiBinding<ConjurSecretCre
 		LOGGER.log(Level.FINEST, String.format("getCredentialsFor context %s credentialid %s" , build.getFullDisplayName(), credentialsId ) );
 
 		String newCredentialId = credentialsId.replaceAll("([${}])", "");
-		IdCredentials cred = CredentialsProvider.findCredentialById(newCredentialId, ConjurSecretCredentials.class, build);
+		IdCredentials cred = CredentialsProvider.findCredentialById(newCredentialId, ConjurSecretCredentials.class, build,
+				new ConjurCredentialIdRequirement(newCredentialId));
 
 		if(cred==null)
 		{
@@ -10,6 +10,11 @@ import hudson.util.Secret;
 import org.conjur.jenkins.api.ConjurAPI;
 import org.jenkinsci.plugins.docker.commons.credentials.DockerServerCredentials;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 @NameWith(value = ConjurSecretDockerCertCredentials.NameProvider.class, priority = 32)
 public abstract class ConjurSecretDockerCertCredentials extends DockerServerCredentials implements ConjurSecretCredentials {
 
@@ -43,6 +48,22 @@ public abstract class ConjurSecretDockerCertCredentials extends DockerServerCred
         return cert != null ? cert.getPlainText() : null;
     }
 
+    /**
+     * Retrieve client key, client certificate and CA certificate with a single Conjur request
+     *
+     * @return secrets keyed by variable id
+     */
+    @NonNull
+    public Map<String, Secret> getCertificateSecrets() {
+        Set<String> variableIds = new LinkedHashSet<>();
+        for (String variableId : Arrays.asList(getClientKeyId(), getClientCertificateId(), getCaCertificateId())) {
+            if (variableId != null) {
+                variableIds.add(variableId);
+            }
+        }
+        return ConjurAPI.getSecretsFromConjurWithInheritance(getContext(), this, variableIds);
+    }
+
     static class NameProvider extends CredentialsNameProvider<ConjurSecretDockerCertCredentials> {
         @NonNull
         @Override
@@ -34,17 +34,23 @@ public class ConjurSecretDockerCertCredentialsBinding extends MultiBinding<Conju
 
         if (credentials != null) {
             credentials.setContext(build);
-            Secret secret = credentials.getClientKeySecret();
+            // key, certificate and CA are fetched with one request
+            Map<String, Secret> secrets = credentials.getCertificateSecrets();
+            Secret secret = secrets.get(credentials.getClientKeyId());
             if (secret != null) {
                 m.put(clientKeyVariable, secret.getPlainText());
             }
-            m.put(clientCertVariable, credentials.getClientCertificate());
-            m.put(caCertificateVariable, credentials.getServerCaCertificate());
+            m.put(clientCertVariable, plainText(secrets.get(credentials.getClientCertificateId())));
+            m.put(caCertificateVariable, plainText(secrets.get(credentials.getCaCertificateId())));
         }
 
         return new MultiEnvironment(m);
     }
 
+    private static String plainText(Secret secret) {
+        return secret != null ? secret.getPlainText() : null;
+    }
+
     @Override
     protected Class<ConjurSecretDockerCertCredentials> type() {
         return ConjurSecretDockerCertCredentials.class;
@@ -0,0 +1,91 @@
+package org.conjur.jenkins.credentials;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Credentials listed from Conjur for one context, indexed by ID and bucketed by type.
+ * Catalog is built once per refresh and never modified, type buckets are computed on first use.
+ */
+final class ConjurCredentialCatalog {
+
+	static final ConjurCredentialCatalog EMPTY = new ConjurCredentialCatalog(Collections.emptyList());
+
+	private final List<StandardCredentials> credentials;
+	private final Map<String, StandardCredentials> byId;
+	private final ConjurCredentialIdFilter idFilter;
+	private final ConcurrentHashMap<Class<?>, List<?>> byType = new ConcurrentHashMap<>();
+
+	private ConjurCredentialCatalog(Collection<StandardCredentials> credentials) {
+		this.credentials = Collections.unmodifiableList(new ArrayList<>(credentials));
+		Map<String, StandardCredentials> index = new HashMap<>();
+		for (StandardCredentials credential : this.credentials) {
+			// keep the first credential with given ID, as lookup by ID does
+			index.putIfAbsent(credential.getId(), credential);
+		}
+		this.byId = Collections.unmodifiableMap(index);
+		this.idFilter = ConjurCredentialIdFilter.of(index.keySet());
+	}
+
+	/**
+	 * @param credentials credentials listed from Conjur, may be null
+	 * @return catalog of the credentials
+	 */
+	static ConjurCredentialCatalog of(Collection<StandardCredentials> credentials) {
+		return credentials == null || credentials.isEmpty() ? EMPTY : new ConjurCredentialCatalog(credentials);
+	}
+
+	/**
+	 * @return all credentials in listing order
+	 */
+	List<StandardCredentials> getCredentials() {
+		return credentials;
+	}
+
+	/**
+	 * @param id credential ID
+	 * @return credential with the ID or null
+	 */
+	StandardCredentials getById(String id) {
+		return byId.get(id);
+	}
+
+	/**
+	 * @return filter of IDs in the catalog
+	 */
+	ConjurCredentialIdFilter getIdFilter() {
+		return idFilter;
+	}
+
+	/**
+	 * @param type credential type
+	 * @param <C> credential type
+	 * @return credentials assignable to the type in listing order
+	 */
+	@SuppressWarnings("unchecked")
+	<C> List<C> getByType(Class<C> type) {
+		return (List<C>) byType.computeIfAbsent(type, t -> {
+			List<C> bucket = new ArrayList<>();
+			for (StandardCredentials credential : credentials) {
+				if (type.isInstance(credential)) {
+					bucket.add(type.cast(credential));
+				}
+			}
+			return Collections.unmodifiableList(bucket);
+		});
+	}
+
+	/**
+	 * @return number of credentials
+	 */
+	int size() {
+		return credentials.size();
+	}
+}
@@ -0,0 +1,89 @@
+package org.conjur.jenkins.credentials;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bloom filter of credential IDs in a catalog. Answers "definitely not present" without false negatives,
+ * about 1% of IDs not in the catalog are reported as possibly present. Each ID is put also in the forms
+ * under which typed credentials are created for a Conjur variable, see {@link #TYPED_PREFIXES}.
+ */
+final class ConjurCredentialIdFilter {
+
+	private static final int BITS_PER_ID = 10;
+	private static final int HASHES = 7;
+
+	/**
+	 * Prefixes of IDs of typed credentials created for a Conjur variable
+	 */
+	static final List<String> TYPED_PREFIXES = Arrays.asList("username-", "string-", "file-", "usernamesshkey-",
+			"docker-cert-");
+
+	private final long[] bits;
+	private final int bitCount;
+
+	private ConjurCredentialIdFilter(int expectedIds) {
+		int words = Math.max(1, (expectedIds * BITS_PER_ID + 63) / 64);
+		this.bits = new long[words];
+		this.bitCount = words * 64;
+	}
+
+	/**
+	 * @param ids IDs to put into filter
+	 * @return filter containing the IDs
+	 */
+	static ConjurCredentialIdFilter of(Collection<String> ids) {
+		ConjurCredentialIdFilter filter = new ConjurCredentialIdFilter(ids.size() * (TYPED_PREFIXES.size() + 1));
+		for (String id : ids) {
+			if (id == null) {
+				continue;
+			}
+			filter.put(id);
+			for (String prefix : TYPED_PREFIXES) {
+				filter.put(prefix + id);
+			}
+		}
+		return filter;
+	}
+
+	/**
+	 * @param id credential ID
+	 * @return false if ID is not in the filter, true if it may be
+	 */
+	boolean mightContain(String id) {
+		if (id == null) {
+			return false;
+		}
+		int h1 = id.hashCode();
+		int h2 = secondHash(id);
+		for (int i = 0; i < HASHES; i++) {
+			int bit = Math.floorMod(h1 + i * h2, bitCount);
+			if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void put(String id) {
+		int h1 = id.hashCode();
+		int h2 = secondHash(id);
+		for (int i = 0; i < HASHES; i++) {
+			int bit = Math.floorMod(h1 + i * h2, bitCount);
+			bits[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * FNV-1a hash, independent of String.hashCode, forced odd so that all probes differ
+	 */
+	private static int secondHash(String id) {
+		int hash = 0x811c9dc5;
+		for (int i = 0; i < id.length(); i++) {
+			hash ^= id.charAt(i);
+			hash *= 0x01000193;
+		}
+		return hash | 1;
+	}
+}
@@ -0,0 +1,50 @@
+package org.conjur.jenkins.credentials;
+
+import com.cloudbees.plugins.credentials.domains.DomainRequirement;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Domain requirement carrying the ID of the credential being looked up. No domain specification tests it,
+ * so other providers ignore it, while {@link ConjurCredentialProvider} answers from the ID index of its
+ * catalogs instead of listing all of their credentials.
+ */
+public class ConjurCredentialIdRequirement extends DomainRequirement {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String id;
+
+	/**
+	 * @param id ID of the looked up credential
+	 */
+	public ConjurCredentialIdRequirement(@NonNull String id) {
+		super();
+		this.id = id;
+	}
+
+	/**
+	 * @return ID of the looked up credential
+	 */
+	@NonNull
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @param domainRequirements requirements of a lookup
+	 * @return ID of the looked up credential or null if lookup is not for a single ID
+	 */
+	static String idOf(List<DomainRequirement> domainRequirements) {
+		if (domainRequirements == null) {
+			return null;
+		}
+		for (DomainRequirement requirement : domainRequirements) {
+			if (requirement instanceof ConjurCredentialIdRequirement) {
+				return ((ConjurCredentialIdRequirement) requirement).getId();
+			}
+		}
+		return null;
+	}
+}
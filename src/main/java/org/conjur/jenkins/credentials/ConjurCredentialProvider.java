@@ -11,20 +11,31 @@ import hudson.model.Item;
 import hudson.model.ItemGroup;
 import hudson.model.ModelObject;
 import hudson.security.ACL;
+import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import org.acegisecurity.Authentication;
 import org.conjur.jenkins.api.ConjurAPI;
+import org.conjur.jenkins.api.ConjurExecutors;
+import org.apache.commons.lang.StringUtils;
+import org.conjur.jenkins.configuration.ConjurConfiguration;
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Provides the ConjurCredentails extends CredentialProvider
@@ -33,7 +44,6 @@ import java.util.stream.Collectors;
 public class ConjurCredentialProvider extends CredentialsProvider {
 
 	private static final Logger LOGGER = Logger.getLogger(ConjurCredentialProvider.class.getName());
-	private static final ConcurrentHashMap<String, Supplier<Collection<StandardCredentials>>> allCredentialSuppliers = new ConcurrentHashMap<String, Supplier<Collection<StandardCredentials>>>();
 
 
 	/**
@@ -46,10 +56,11 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 	 * @param domainRequirements provides domain requirements.
 	 */
 	@Override
-	public <C extends Credentials> List<C> getCredentials(@NonNull Class<C> type, @NonNull ItemGroup itemGroup,
-														  @NonNull Authentication authentication, @NonNull List<DomainRequirement> domainRequirements) {
-
-		return getCredentialsFromSupplier(type, itemGroup, authentication);
+	@NonNull
+	public <C extends Credentials> List<C> getCredentialsInItemGroup(@NonNull Class<C> type, ItemGroup itemGroup,
+			org.springframework.security.core.Authentication authentication, @NonNull List<DomainRequirement> domainRequirements) {
+		return getCredentialsFromSupplier(type, itemGroup != null ? itemGroup : Jenkins.get(),
+				ACL.SYSTEM2.equals(authentication), domainRequirements);
 	}
 
 	/**
@@ -58,10 +69,9 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 	 */
 	@Override
 	@NonNull
-	public <C extends Credentials> List<C> getCredentials(@NonNull Class<C> type, @NonNull Item item,
-			@NonNull Authentication authentication, @NonNull List<DomainRequirement> domainRequirements) {
-		return getCredentialsFromSupplier(type, item, authentication);
-
+	public <C extends Credentials> List<C> getCredentialsInItem(@NonNull Class<C> type, @NonNull Item item,
+			org.springframework.security.core.Authentication authentication, @NonNull List<DomainRequirement> domainRequirements) {
+		return getCredentialsFromSupplier(type, item, ACL.SYSTEM2.equals(authentication), domainRequirements);
 	}
 
 	/**
@@ -72,7 +82,7 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 	@NonNull
 	public <C extends Credentials> List<C> getCredentials(@NonNull Class<C> type, ItemGroup itemGroup,
 			Authentication authentication) {
-		return getCredentialsFromSupplier(type, itemGroup, authentication);
+		return getCredentialsFromSupplier(type, itemGroup, ACL.SYSTEM.equals(authentication), Collections.emptyList());
 	}
 
 	/**
@@ -86,17 +96,7 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 	{
 		List<C> creds = new ArrayList<>();
 		try {
-			getStore(context);
-
-			Supplier<Collection<StandardCredentials>> currentCredentialSupplier = allCredentialSuppliers.get(String.valueOf(context.hashCode()));
-
-			if (currentCredentialSupplier != null) {
-				Collection<StandardCredentials> addNewCredentials = currentCredentialSupplier.get();
-				if( addNewCredentials != null ) {
-					creds.addAll(addNewCredentials.stream().filter(c -> type.isAssignableFrom(c.getClass())).map(type::cast)
-							.collect(Collectors.toList()));
-				}
-			}
+			creds.addAll(getCatalog(context).getByType(type));
 		} catch (Exception e) {
 			LOGGER.log(Level.SEVERE, String.format("Getting credentials failed. Exception: %s", e.toString() ) );
 		}
@@ -105,107 +105,216 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 	}
 
 	/**
-	 * Get credentials from provider
+	 * Get catalog of credentials listed from Conjur for context
+	 *
+	 * @param context the context for which credentials will be returned
+	 * @return catalog, empty if context has no Conjur configuration
+	 */
+	ConjurCredentialCatalog getCatalog(ModelObject context)
+	{
+		if (!hasConjurConfiguration(context)) {
+			return ConjurCredentialCatalog.EMPTY;
+		}
+
+		ConjurCredentialCatalog catalog = getRegistration(context).getCatalog().get();
+		return catalog != null ? catalog : ConjurCredentialCatalog.EMPTY;
+	}
+
+	/**
+	 * Get credentials from provider. Lookup of a single ID, see {@link ConjurCredentialIdRequirement},
+	 * is answered from the ID index of the catalogs and stops at the nearest level holding the ID.
 	 *
 	 * @param type type of credential class which will be returned
 	 * @param context current context
-	 * @param authentication
+	 * @param system true if credentials are requested as SYSTEM
+	 * @param domainRequirements requirements of the lookup
 	 * @return
 	 * @param <C> Credentials in list
 	 */
 	private <C extends Credentials> List<C> getCredentialsFromSupplier(@NonNull Class<C> type, ModelObject context,
-			Authentication authentication) {
+			boolean system, List<DomainRequirement> domainRequirements) {
 		List<C> creds = new ArrayList<C>();
 
 		LOGGER.log(Level.FINEST, String.format("getCredentialsFromSupplier type: %s context: %s", type.toString(), context.getDisplayName() ) );
 
-		ItemGroup<?> locg = null;
+		// certificate of a Conjur configuration is looked up through all providers, skip ours meanwhile
+		if (ConjurConfiguration.isResolvingCertificate()) {
+			return creds;
+		}
 
 		// check authentication
 
-		if (ACL.SYSTEM.equals(authentication))
+		if (system)
 		{
-			// get credentials for current item
-			if( context instanceof AbstractFolder)
-			{
-				locg = (ItemGroup<?>) context;
-			}
-			else if( context instanceof Item )
-			{
-				locg = (ItemGroup<?>)(((Item) context).getParent());
-
-				creds.addAll( getCredentials(type, context) );
-
-				if( !ConjurAPI.isInheritanceOn( context ) )
-				{
-					return creds;
+			String id = ConjurCredentialIdRequirement.idOf(domainRequirements);
+			if (id != null) {
+				for (ModelObject level : getContextChain(context)) {
+					StandardCredentials credential = findInCatalog(level, id);
+					if (type.isInstance(credential)) {
+						creds.add(type.cast(credential));
+						break;
+					}
 				}
+				return creds;
 			}
+			// get credentials from Conjur assigned to each context, in inheritance order
+			for (List<C> levelCreds : resolveLevels(getContextChain(context), level -> getCredentials(type, level))) {
+				creds.addAll( levelCreds );
+			}
+		}
+		LOGGER.log(Level.FINEST, String.format("Return credentials: %d", creds.size() ) );
 
-			// get credentials from up folders
-			// only if its not last entry , so Jenkins
-
-			if( !(context instanceof hudson.model.Hudson) ) {
-				for (ItemGroup<?> g = locg; g instanceof AbstractFolder; g = (AbstractFolder.class.cast(g)).getParent())
-				{
-					// get credentials from Conjur assigned to context
-					creds.addAll( getCredentials(type, g) );
+		return creds;
+	}
 
-					// we dont want to get credentials from upper levels
-					if( !ConjurAPI.isInheritanceOn( g ) )
-					{
-						LOGGER.log(Level.FINEST, String.format("Inheritance stopped on %s", g.getFullName() ) );
-						break;
+	/**
+	 * Apply resolver to each level of the chain. Levels whose catalog is not loaded yet are resolved
+	 * concurrently on the plugin executor. The caller runs every task which was not started by the executor,
+	 * so results are never waited for behind a busy executor.
+	 *
+	 * @param chain contexts in inheritance order
+	 * @param resolver resolves one level
+	 * @param <T> result type
+	 * @return results in order of the chain
+	 */
+	<T> List<T> resolveLevels(List<ModelObject> chain, Function<ModelObject, T> resolver) {
+		List<FutureTask<T>> tasks = new ArrayList<>(chain.size());
+		boolean callerHasColdLevel = false;
+		for (ModelObject level : chain) {
+			FutureTask<T> task = new FutureTask<>(() -> resolver.apply(level));
+			tasks.add(task);
+			if (isCatalogCold(level)) {
+				if (callerHasColdLevel) {
+					try {
+						ConjurExecutors.get().execute(task);
+					} catch (RejectedExecutionException e) {
+						LOGGER.log(Level.FINEST, String.format("Catalog resolution rejected, resolving in caller: %s", e));
 					}
 				}
+				callerHasColdLevel = true;
 			}
+		}
 
+		List<T> results = new ArrayList<>(tasks.size());
+		for (FutureTask<T> task : tasks) {
+			// no-op if the executor already started the task
+			task.run();
 			try {
-				// get credentials from Conjur assigned to context
-				creds.addAll( getCredentials(type, Jenkins.get()) );
+				results.add(task.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while resolving Conjur credentials", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Resolving Conjur credentials failed", e.getCause());
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @param context context of catalog
+	 * @return true if context has Conjur configuration and its catalog was not loaded yet
+	 */
+	private boolean isCatalogCold(ModelObject context) {
+		return hasConjurConfiguration(context) && getRegistration(context).getCatalog().getIfPresent() == null;
+	}
+
+	/**
+	 * Get contexts from which credentials are visible in context, in inheritance order:
+	 * the item itself, folders above it while inheritance is on and Jenkins
+	 *
+	 * @param context current context
+	 * @return list of contexts
+	 */
+	List<ModelObject> getContextChain(ModelObject context) {
+		List<ModelObject> chain = new ArrayList<>();
+
+		ItemGroup<?> locg = null;
+
+		// get credentials for current item
+		if( context instanceof AbstractFolder)
+		{
+			locg = (ItemGroup<?>) context;
+		}
+		else if( context instanceof Item )
+		{
+			locg = (ItemGroup<?>)(((Item) context).getParent());
+
+			chain.add( context );
+
+			if( !ConjurAPI.isInheritanceOn( context ) )
+			{
+				return chain;
 			}
-			catch (IllegalStateException e )
+		}
+
+		// get credentials from up folders
+		// only if its not last entry , so Jenkins
+
+		if( !(context instanceof hudson.model.Hudson) ) {
+			for (ItemGroup<?> g = locg; g instanceof AbstractFolder; g = (AbstractFolder.class.cast(g)).getParent())
 			{
-				LOGGER.log(Level.FINEST, String.format("Getting global credentials exception: %s", e.toString() ) );
+				chain.add( g );
+
+				// we dont want to get credentials from upper levels
+				if( !ConjurAPI.isInheritanceOn( g ) )
+				{
+					LOGGER.log(Level.FINEST, String.format("Inheritance stopped on %s", g.getFullName() ) );
+					break;
+				}
 			}
 		}
-		LOGGER.log(Level.FINEST, String.format("Return credentials: %d", creds.size() ) );
 
-		return creds;
+		try {
+			chain.add( Jenkins.get() );
+		}
+		catch (IllegalStateException e )
+		{
+			LOGGER.log(Level.FINEST, String.format("Getting global credentials exception: %s", e.toString() ) );
+		}
+		return chain;
+	}
+
+	/**
+	 * Find credential in catalog of context. Catalog already held for the context is used even if it
+	 * is expired, the catalog is loaded only if the context has none yet and the ID may be in the last
+	 * catalog loaded for the context.
+	 *
+	 * @param context context of catalog
+	 * @param id credential ID
+	 * @return credential or null if not found
+	 */
+	StandardCredentials findInCatalog(ModelObject context, String id) {
+		if (!hasConjurConfiguration(context)) {
+			return null;
+		}
+		ConjurCustomSuppliers.RefreshingSupplier<ConjurCredentialCatalog> supplier = getRegistration(context).getCatalog();
+		ConjurCredentialCatalog catalog = supplier.getIfPresent();
+		if (catalog == null) {
+			ConjurCredentialIdFilter lastKnownIds = ConjurCredentialStoreRegistry.getKnownIds(context);
+			if (lastKnownIds != null && !lastKnownIds.mightContain(id)) {
+				LOGGER.log(Level.FINEST, String.format("Credential %s not known for %s, skipping catalog load", id, context.getDisplayName()));
+				return null;
+			}
+			catalog = supplier.get();
+		}
+		return catalog != null ? catalog.getById(id) : null;
 	}
 
 	/**
 	 * Method to return the Conjur Credential Store
 	 *
 	 * @param object to which Store will be assigned
-	 * @return the ConjurCredentailStore based on the ModelObject
+	 * @return the ConjurCredentailStore based on the ModelObject, null if object has no Conjur configuration
 	 */
 	@Override
 	public ConjurCredentialStore getStore(ModelObject object) {
 		ConjurCredentialStore store = null;
-		Supplier<Collection<StandardCredentials>> supplier = null;
 
-		if (object != null)
+		if (object != null && hasConjurConfiguration(object))
 		{
-			String key = String.valueOf(object.hashCode());
-
 			try {
-				if (ConjurCredentialStore.isStoreContainsKey(key))
-				{
-					LOGGER.log(Level.FINEST, String.format("GetStore EXISTING ConjurCredentialProvider: %s object %s hash %s"
-							, object.getClass().getName() , object.toString() , object.hashCode( ) ) );
-					store = ConjurCredentialStore.getCredentialStore(key);
-				}
-				else
-				{
-					LOGGER.log(Level.FINEST, String.format("GetStore CREATE, key: %s object %s", key, object.toString() ) );
-					store = new ConjurCredentialStore(this, object);
-
-					supplier = memoizeWithExpiration(ConjurCredentialsSupplier.standard(object), Duration.ofSeconds(120));
-					ConjurCredentialStore.putCredentialStore(key, store);
-
-					allCredentialSuppliers.put(key, supplier);
-				}
+				store = getRegistration(object).getStore();
 			} catch (Exception ex) {
 				LOGGER.log(Level.SEVERE, String.format("There is a problem with Storage: %s", ex.getMessage() ) );
 			}
@@ -214,13 +323,39 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 		return store;
 	}
 
+	/**
+	 * Get store and credential supplier registered for object, create them if they do not exist
+	 *
+	 * @param object context of the store
+	 * @return registration
+	 */
+	private ConjurCredentialStoreRegistry.Registration getRegistration(ModelObject object) {
+		return ConjurCredentialStoreRegistry.getOrCreate(object, o -> {
+			LOGGER.log(Level.FINEST, String.format("GetStore CREATE, object %s", o.toString() ) );
+			return new ConjurCredentialStoreRegistry.Registration(o, () -> new ConjurCredentialStore(this, o), catalogSupplier(o));
+		});
+	}
+
+	/**
+	 * Check if effective configuration of the object points to a Conjur server
+	 *
+	 * @param object context
+	 * @return true if appliance URL is configured for the object
+	 */
+	static boolean hasConjurConfiguration(ModelObject object) {
+		ConjurConfiguration configuration = ConjurAPI.getConfigurationFromContext(object);
+		return configuration != null && StringUtils.isNotBlank(configuration.getApplianceURL());
+	}
+
 	/**
 	 *
 	 * @return Map containing all credential suppliers
+	 * @deprecated stores and suppliers are kept in {@link ConjurCredentialStoreRegistry}, returned map is a snapshot
 	 */
+	@Deprecated
 	public static ConcurrentMap<String, Supplier<Collection<StandardCredentials>>> getAllCredentialSuppliers()
 	{
-		return allCredentialSuppliers;
+		return new ConcurrentHashMap<>(ConjurCredentialStoreRegistry.getSuppliers());
 	}
 
 	/**
@@ -243,20 +378,68 @@ public class ConjurCredentialProvider extends CredentialsProvider {
 		return ConjurCustomSuppliers.memoizeWithExpiration(base, duration);
 	}
 
+	/**
+	 * Create supplier of catalog of credentials listed from Conjur for the object. The catalog is refreshed in
+	 * background after time to live configured in GlobalConjurConfiguration, previous catalog is served meanwhile
+	 * and also kept when the refresh fails, until the configured maximum staleness. IDs of each loaded catalog
+	 * are remembered in {@link ConjurCredentialStoreRegistry}.
+	 *
+	 * @param object context of credentials
+	 * @return supplier
+	 */
+	static ConjurCustomSuppliers.RefreshingSupplier<ConjurCredentialCatalog> catalogSupplier(ModelObject object) {
+		ConjurCredentialsSupplier credentials = (ConjurCredentialsSupplier) ConjurCredentialsSupplier.standard(object);
+		return ConjurCustomSuppliers.memoizeWithBackgroundRefresh(() -> loadCatalog(object, credentials),
+				() -> Duration.ofSeconds(getGlobalSetting(GlobalConjurConfiguration::getCredentialCacheTtlInSeconds,
+						GlobalConjurConfiguration.DEFAULT_CREDENTIAL_CACHE_TTL_IN_SECONDS)),
+				() -> Duration.ofSeconds(getGlobalSetting(GlobalConjurConfiguration::getCredentialCacheMaxStalenessInSeconds,
+						GlobalConjurConfiguration.DEFAULT_CREDENTIAL_CACHE_MAX_STALENESS_IN_SECONDS)),
+				ConjurExecutors.get(), () -> ConjurCredentialCatalog.of(null));
+	}
+
+	/**
+	 * Load catalog on the plugin executor, see {@link ConjurExecutors#call}, and remember its IDs
+	 *
+	 * @param object context of credentials
+	 * @param credentials supplier listing credentials of the context
+	 * @return loaded catalog
+	 * @throws IllegalStateException if the credentials could not be listed
+	 */
+	private static ConjurCredentialCatalog loadCatalog(ModelObject object, ConjurCredentialsSupplier credentials) {
+		Collection<StandardCredentials> loaded;
+		try {
+			loaded = ConjurExecutors.call(credentials::load);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while listing Conjur credentials", e);
+		} catch (IOException e) {
+			throw new IllegalStateException(String.format("Cannot list Conjur credentials: %s", e.getMessage()), e);
+		}
+		ConjurCredentialCatalog catalog = ConjurCredentialCatalog.of(loaded);
+		ConjurCredentialStoreRegistry.rememberIds(object, catalog);
+		return catalog;
+	}
+
+	private static long getGlobalSetting(ToLongFunction<GlobalConjurConfiguration> setting, long defaultValue) {
+		GlobalConjurConfiguration globalConfig = Jenkins.getInstanceOrNull() != null
+				? GlobalConfiguration.all().get(GlobalConjurConfiguration.class) : null;
+		return globalConfig != null ? setting.applyAsLong(globalConfig) : defaultValue;
+	}
+
 	/**
 	 * Put credentials into store pointed by key
 	 *
 	 * @param ccp ConjurCredentialProvider
 	 * @param object which will be stored
-	 * @param key
+	 * @param key ignored, store is registered under key derived from object
 	 * @return ConjurCredentialStore
+	 * @deprecated stores are created on demand by {@link #getStore(ModelObject)}
 	 */
+	@Deprecated
 	public static ConjurCredentialStore putCredentials( ConjurCredentialProvider ccp, ModelObject object, String key )
 	{
 		ConjurCredentialStore store = new ConjurCredentialStore(ccp, object);
-		Supplier<Collection<StandardCredentials>> supplier = memoizeWithExpiration(ConjurCredentialsSupplier.standard(object), Duration.ofSeconds(120));
-		ConjurCredentialStore.putCredentialStore(key, store);
-		allCredentialSuppliers.put(key, supplier);
+		ConjurCredentialStoreRegistry.put(new ConjurCredentialStoreRegistry.Registration(object, () -> store, catalogSupplier(object)));
 		return store;
 	}
 }
@@ -8,6 +8,8 @@ import com.cloudbees.plugins.credentials.CredentialsStoreAction;
 import com.cloudbees.plugins.credentials.domains.Domain;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
 import hudson.model.Item;
 import hudson.model.ItemGroup;
 import hudson.model.ModelObject;
@@ -23,7 +25,6 @@ import org.springframework.security.core.Authentication;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,10 +36,9 @@ public class ConjurCredentialStore extends CredentialsStore {
 	private static final String DISPLAY_NAME = "Conjur Credential Storage";
 	private static final Logger LOGGER = Logger.getLogger(ConjurCredentialStore.class.getName());
 
-	private static ConcurrentHashMap<String, ConjurCredentialStore> allStores = new ConcurrentHashMap<String, ConjurCredentialStore>();
 	private final ConjurCredentialProvider provider;
 	private final ModelObject context;
-	private final ConjurCredentialStoreAction action;
+	private volatile ConjurCredentialStoreAction action;
 
 	/**
 	 * Constructor
@@ -50,36 +50,43 @@ public class ConjurCredentialStore extends CredentialsStore {
 
 		this.provider = provider;
 		this.context = context;
-		this.action = new ConjurCredentialStoreAction(this, context);
 	}
 
 	/**
 	 * Store ConjurCredentialStore
-	 * @param key name to which ConjurCredentialStore will be assigned
+	 * @param key ignored, store is registered under key derived from its context
 	 * @param c ConjurCredentialStore
+	 * @deprecated stores are kept in {@link ConjurCredentialStoreRegistry}
 	 */
+	@Deprecated
 	public static void putCredentialStore(String key, ConjurCredentialStore c ){
-		allStores.put( key, c );
+		ConjurCredentialStoreRegistry.put(new ConjurCredentialStoreRegistry.Registration(c.getContext(), () -> c,
+				ConjurCredentialProvider.catalogSupplier(c.getContext())));
 	}
 
 	/**
 	 * Get ConjurCredentialStore
-	 * @param key name used to get store
+	 * @param key registry key or hash code of the store context
 	 * @return ConjurCredentialStore if exist or null
+	 * @deprecated stores are kept in {@link ConjurCredentialStoreRegistry}
 	 */
+	@Deprecated
 	public static ConjurCredentialStore getCredentialStore(String key )
 	{
-		return allStores.get( key );
+		ConjurCredentialStoreRegistry.Registration registration = ConjurCredentialStoreRegistry.find(key);
+		return registration != null ? registration.getStore() : null;
 	}
 
 	/**
 	 * Check if ConjurCredentialStore exist
-	 * @param key name used to get store
+	 * @param key registry key or hash code of the store context
 	 * @return true if store exist, otherwise false
+	 * @deprecated stores are kept in {@link ConjurCredentialStoreRegistry}
 	 */
+	@Deprecated
 	public static boolean isStoreContainsKey( String key )
 	{
-		return allStores.containsKey( key );
+		return ConjurCredentialStoreRegistry.find(key) != null;
 	}
 
 	/**
@@ -262,7 +269,17 @@ public class ConjurCredentialStore extends CredentialsStore {
 	@Nullable
 	@Override
 	public CredentialsStoreAction getStoreAction() {
-		return action;
+		ConjurCredentialStoreAction result = action;
+		if (result == null) {
+			synchronized (this) {
+				result = action;
+				if (result == null) {
+					result = new ConjurCredentialStoreAction(this, context);
+					action = result;
+				}
+			}
+		}
+		return result;
 	}
 
     /**
@@ -280,10 +297,13 @@ public class ConjurCredentialStore extends CredentialsStore {
         protected ConjurCredentialStoreAction(ConjurCredentialStore store, ModelObject context) {
             this.store = store;
 			this.context = context;
-            addIcons();
         }
 
-		private void addIcons() {
+		/**
+		 * Register store icons once when plugins are started
+		 */
+		@Initializer(after = InitMilestone.PLUGINS_STARTED)
+		public static void addIcons() {
 			IconSet.icons.addIcon(new Icon(ICON_CLASS + " icon-sm",
 					"conjur-credentials/images/conjur-credential-store-sm.png",
 					Icon.ICON_SMALL_STYLE, IconType.PLUGIN));
@@ -0,0 +1,227 @@
+package org.conjur.jenkins.credentials;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import hudson.model.Item;
+import hudson.model.ModelObject;
+import hudson.model.User;
+import jenkins.model.Jenkins;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of Conjur credential stores and credential suppliers.
+ * Entries are keyed by item full name, so deleted, moved or renamed items can be removed, and hold the
+ * context object they were created for, so an object reloaded under the same name gets a new entry.
+ * The registry is bounded, least recently used entries are evicted when it grows over the limit.
+ * IDs of the last catalog loaded for a context are kept apart from its registration, so they survive
+ * refresh, expiry and replacement of the registration, and let lookups of unknown IDs skip a cold load.
+ */
+public final class ConjurCredentialStoreRegistry {
+
+	private static final Logger LOGGER = Logger.getLogger(ConjurCredentialStoreRegistry.class.getName());
+
+	static final int MAX_ENTRIES = 10000;
+
+	private static final ConcurrentHashMap<String, Registration> registrations = new ConcurrentHashMap<>();
+	private static final ConcurrentHashMap<String, ConjurCredentialIdFilter> knownIds = new ConcurrentHashMap<>();
+	private static final AtomicBoolean evicting = new AtomicBoolean(false);
+
+	private ConjurCredentialStoreRegistry() {
+		super();
+	}
+
+	/**
+	 * Return registration for the context, create it with the factory if there is none
+	 *
+	 * @param context context of the store
+	 * @param factory creates registration for context
+	 * @return registration
+	 */
+	static Registration getOrCreate(ModelObject context, Function<ModelObject, Registration> factory) {
+		String key = key(context);
+		Registration registration = registrations.get(key);
+		if (registration == null || registration.context != context) {
+			registration = registrations.compute(key, (k, existing) ->
+					existing != null && existing.context == context ? existing : factory.apply(context));
+			evictIfNeeded();
+		}
+		registration.lastAccess = System.nanoTime();
+		return registration;
+	}
+
+	/**
+	 * Put registration for its context, replacing existing one
+	 *
+	 * @param registration registration to put
+	 */
+	static void put(Registration registration) {
+		registrations.put(key(registration.context), registration);
+		evictIfNeeded();
+	}
+
+	/**
+	 * Find registration by its key or, for callers of the deprecated store API, by hash code of its context
+	 *
+	 * @param key registry key or context hash code
+	 * @return registration or null
+	 */
+	static Registration find(String key) {
+		if (key == null) {
+			return null;
+		}
+		Registration registration = registrations.get(key);
+		if (registration != null) {
+			return registration;
+		}
+		return registrations.values().stream()
+				.filter(r -> key.equals(String.valueOf(r.context.hashCode())))
+				.findFirst()
+				.orElse(null);
+	}
+
+	/**
+	 * Remember IDs of catalog loaded for the context
+	 *
+	 * @param context context of the catalog
+	 * @param catalog loaded catalog
+	 */
+	static void rememberIds(ModelObject context, ConjurCredentialCatalog catalog) {
+		knownIds.put(key(context), catalog.getIdFilter());
+	}
+
+	/**
+	 * @param context context of the catalog
+	 * @return filter of IDs of the last catalog loaded for the context or null if none was loaded
+	 */
+	static ConjurCredentialIdFilter getKnownIds(ModelObject context) {
+		return knownIds.get(key(context));
+	}
+
+	/**
+	 * Remove entries of the item and all items below it
+	 *
+	 * @param fullName full name of deleted or moved item
+	 */
+	public static void removeItem(String fullName) {
+		if (fullName == null) {
+			return;
+		}
+		String key = itemKey(fullName);
+		String prefix = key + "/";
+		registrations.keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix));
+		knownIds.keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix));
+		LOGGER.log(Level.FINEST, String.format("Removed credential stores of %s", fullName));
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public static void clear() {
+		registrations.clear();
+		knownIds.clear();
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	static int size() {
+		return registrations.size();
+	}
+
+	/**
+	 * @return snapshot of credential suppliers by key
+	 */
+	static Map<String, Supplier<Collection<StandardCredentials>>> getSuppliers() {
+		Map<String, Supplier<Collection<StandardCredentials>>> suppliers = new HashMap<>();
+		registrations.forEach((key, registration) -> suppliers.put(key, () -> registration.catalog.get().getCredentials()));
+		return suppliers;
+	}
+
+	/**
+	 * Build key for context: full name for items, id for users, identity for other objects
+	 *
+	 * @param context context of the store
+	 * @return key
+	 */
+	static String key(ModelObject context) {
+		if (context instanceof Jenkins) {
+			return "jenkins";
+		} else if (context instanceof Item) {
+			return itemKey(((Item) context).getFullName());
+		} else if (context instanceof User) {
+			return "user:" + ((User) context).getId();
+		}
+		return context.getClass().getName() + "@" + System.identityHashCode(context);
+	}
+
+	private static String itemKey(String fullName) {
+		return "item:" + fullName;
+	}
+
+	private static void evictIfNeeded() {
+		if (registrations.size() <= MAX_ENTRIES || !evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int toEvict = registrations.size() - MAX_ENTRIES * 9 / 10;
+			registrations.entrySet().stream()
+					.sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+					.limit(Math.max(0, toEvict))
+					.map(Map.Entry::getKey)
+					.forEach(registrations::remove);
+			knownIds.keySet().retainAll(registrations.keySet());
+			LOGGER.log(Level.FINE, String.format("Evicted %d least recently used credential stores", toEvict));
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	/**
+	 * Credential catalog supplier created for a context, store is created when it is first needed
+	 */
+	static final class Registration {
+		private final ModelObject context;
+		private final Supplier<ConjurCredentialStore> storeFactory;
+		private final ConjurCustomSuppliers.RefreshingSupplier<ConjurCredentialCatalog> catalog;
+		private volatile ConjurCredentialStore store;
+		private volatile long lastAccess = System.nanoTime();
+
+		Registration(ModelObject context, Supplier<ConjurCredentialStore> storeFactory,
+					 ConjurCustomSuppliers.RefreshingSupplier<ConjurCredentialCatalog> catalog) {
+			this.context = context;
+			this.storeFactory = storeFactory;
+			this.catalog = catalog;
+		}
+
+		ModelObject getContext() {
+			return context;
+		}
+
+		ConjurCredentialStore getStore() {
+			ConjurCredentialStore result = store;
+			if (result == null) {
+				synchronized (this) {
+					result = store;
+					if (result == null) {
+						result = storeFactory.get();
+						store = result;
+					}
+				}
+			}
+			return result;
+		}
+
+		ConjurCustomSuppliers.RefreshingSupplier<ConjurCredentialCatalog> getCatalog() {
+			return catalog;
+		}
+	}
+}
@@ -69,18 +69,50 @@ public class ConjurCredentialsSupplier implements Supplier<Collection<StandardCr
         Collection<StandardCredentials> allCredentials = new ArrayList<>();
 
         try {
-            allCredentials = ConjurAPI.getCredentialsForContext(StandardCredentials.class, getContext() );
-            if( allCredentials != null ) {
-                for (Credentials cred : allCredentials) {
-                    if (cred instanceof ConjurSecretCredentials) {
-                        ((ConjurSecretCredentials) cred).setStoredInConjurStorage(true);
-                    }
-                }
-            }
+            allCredentials = list();
         }catch( Exception e )
         {
             LOGGER.log(Level.SEVERE, String.format("EXCEPTION: ConjurCredentialsSupplier: returned %s", e.getMessage() ) );
         }
         return allCredentials;
     }
+
+    /**
+     * Retrieve the resources from Conjur like {@link #get()}, but fail instead of returning no credentials,
+     * so that a cached collection is not replaced when Conjur cannot be reached
+     *
+     * @return collection of StandardCredential
+     * @throws IllegalStateException if the credentials could not be listed
+     */
+    Collection<StandardCredentials> load()
+    {
+        if (getContext() == null)
+        {
+            return Collections.emptyList();
+        }
+
+        Collection<StandardCredentials> allCredentials;
+        try {
+            allCredentials = list();
+        } catch (Exception e) {
+            throw new IllegalStateException(String.format("Cannot list Conjur credentials: %s", e.getMessage()), e);
+        }
+        if (allCredentials == null) {
+            throw new IllegalStateException("Cannot list Conjur credentials, authentication failed");
+        }
+        return allCredentials;
+    }
+
+    private Collection<StandardCredentials> list() throws Exception
+    {
+        Collection<StandardCredentials> allCredentials = ConjurAPI.getCredentialsForContext(StandardCredentials.class, getContext() );
+        if( allCredentials != null ) {
+            for (Credentials cred : allCredentials) {
+                if (cred instanceof ConjurSecretCredentials) {
+                    ((ConjurSecretCredentials) cred).setStoredInConjurStorage(true);
+                }
+            }
+        }
+        return allCredentials;
+    }
 }
\ No newline at end of file
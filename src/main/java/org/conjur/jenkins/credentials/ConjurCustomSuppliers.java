@@ -4,7 +4,13 @@ import com.google.common.base.Preconditions;
 
 import java.io.Serializable;
 import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Adaptation of Guava's ExpiringMemoizingSupplier which adds lazy duration lookup functionality.
@@ -13,6 +19,8 @@ import java.util.function.Supplier;
  */
 final class ConjurCustomSuppliers {
 
+    private static final Logger LOGGER = Logger.getLogger(ConjurCustomSuppliers.class.getName());
+
     /**
      * Constructor
      */
@@ -34,6 +42,58 @@ final class ConjurCustomSuppliers {
         return new ExpiringMemoizingSupplier<>(base, duration);
     }
 
+    /**
+     * Supplier which can return its current value without loading it
+     *
+     * @param <T> object type
+     */
+    @FunctionalInterface
+    interface RefreshingSupplier<T> extends Supplier<T> {
+
+        /**
+         * @return current value, possibly expired, or null if it was not loaded yet. Never loads synchronously.
+         */
+        default T getIfPresent() {
+            return get();
+        }
+    }
+
+    /**
+     * Memoize value which is refreshed in background once it expires. Until maxStaleness elapses after
+     * expiration the previous value is returned while a single refresh runs on the executor.
+     * Durations are looked up on each load, time to live is jittered by +/-10%.
+     *
+     * @param base supplier
+     * @param ttl time to live of the value
+     * @param maxStaleness time after expiration during which the previous value is served
+     * @param executor executor running background refresh
+     * @return RefreshingMemoizingSupplier class
+     * @param <T> class type
+     */
+    public static <T> RefreshingSupplier<T> memoizeWithBackgroundRefresh(
+            Supplier<T> base, Supplier<Duration> ttl, Supplier<Duration> maxStaleness, Executor executor) {
+        return new RefreshingMemoizingSupplier<>(base, ttl, maxStaleness, executor, null);
+    }
+
+    /**
+     * Memoize value which is refreshed in background, see {@link #memoizeWithBackgroundRefresh(Supplier, Supplier, Supplier, Executor)}.
+     * A failed background refresh keeps the previous value until maxStaleness elapses, a failed synchronous
+     * load memoizes the fallback value for time to live instead of throwing.
+     *
+     * @param base supplier, throws if the value cannot be loaded
+     * @param ttl time to live of the value
+     * @param maxStaleness time after expiration during which the previous value is served
+     * @param executor executor running background refresh
+     * @param fallback value used when there is no previous value to serve
+     * @return RefreshingMemoizingSupplier class
+     * @param <T> class type
+     */
+    public static <T> RefreshingSupplier<T> memoizeWithBackgroundRefresh(
+            Supplier<T> base, Supplier<Duration> ttl, Supplier<Duration> maxStaleness, Executor executor,
+            Supplier<T> fallback) {
+        return new RefreshingMemoizingSupplier<>(base, ttl, maxStaleness, executor, Preconditions.checkNotNull(fallback));
+    }
+
     /**
      * Class used to hold Credentials in memory for period of time
      *
@@ -100,4 +160,145 @@ final class ConjurCustomSuppliers {
             return value;
         }
     }
+
+    /**
+     * Class used to hold Credentials in memory and refresh them in background
+     *
+     * @param <T> object type
+     */
+    static class RefreshingMemoizingSupplier<T> implements RefreshingSupplier<T> {
+        private static final double JITTER = 0.1;
+
+        final Supplier<T> delegate;
+        final Supplier<Duration> ttl;
+        final Supplier<Duration> maxStaleness;
+        final Executor executor;
+        final Supplier<T> fallback;
+        private final Object lock = new Object();
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile Entry<T> entry;
+
+        /**
+         * Constructor
+         *
+         * @param delegate
+         * @param ttl
+         * @param maxStaleness
+         * @param executor
+         * @param fallback value memoized when synchronous load fails, null to throw
+         */
+        RefreshingMemoizingSupplier(Supplier<T> delegate, Supplier<Duration> ttl,
+                                    Supplier<Duration> maxStaleness, Executor executor, Supplier<T> fallback) {
+            this.delegate = Preconditions.checkNotNull(delegate);
+            this.ttl = Preconditions.checkNotNull(ttl);
+            this.maxStaleness = Preconditions.checkNotNull(maxStaleness);
+            this.executor = Preconditions.checkNotNull(executor);
+            this.fallback = fallback;
+        }
+
+        /**
+         * Return memoized value, load it synchronously only if there is none or it is too stale
+         *
+         * @return value
+         */
+        @Override
+        public T get() {
+            Entry<T> current = entry;
+            long now = System.nanoTime();
+            if (current != null && now - current.staleNanos < 0) {
+                if (now - current.expirationNanos >= 0) {
+                    refreshAsync();
+                }
+                return current.value;
+            }
+
+            synchronized (lock) {
+                current = entry;
+                now = System.nanoTime();
+                if (current == null || now - current.staleNanos >= 0) {
+                    current = loadOrFallback(now);
+                } else if (now - current.expirationNanos >= 0) {
+                    refreshAsync();
+                }
+                return current.value;
+            }
+        }
+
+        /**
+         * Return memoized value without loading it, start background refresh if it is expired
+         *
+         * @return value or null if it was not loaded yet
+         */
+        @Override
+        public T getIfPresent() {
+            Entry<T> current = entry;
+            if (current == null) {
+                return null;
+            }
+            if (System.nanoTime() - current.expirationNanos >= 0) {
+                refreshAsync();
+            }
+            return current.value;
+        }
+
+        private Entry<T> loadOrFallback(long now) {
+            if (fallback == null) {
+                return load(now);
+            }
+            try {
+                return load(now);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, String.format("Loading failed, serving fallback value: %s", e));
+                return store(fallback.get(), now);
+            }
+        }
+
+        private Entry<T> load(long now) {
+            return store(delegate.get(), now);
+        }
+
+        private Entry<T> store(T value, long now) {
+            long ttlNanos = Math.max(1, ttl.get().toNanos());
+            long jitter = (long) (ttlNanos * JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1));
+            long expiration = now + ttlNanos + jitter;
+            Entry<T> loaded = new Entry<>(value, expiration, expiration + Math.max(0, maxStaleness.get().toNanos()));
+            entry = loaded;
+            return loaded;
+        }
+
+        private void refreshAsync() {
+            if (!refreshing.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        load(System.nanoTime());
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, String.format("Background refresh failed, serving previous value: %s", e));
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.FINE, String.format("Background refresh rejected: %s", e));
+                refreshing.set(false);
+            }
+        }
+
+        /**
+         * Value with its expiration and staleness limit
+         */
+        private static final class Entry<T> {
+            private final T value;
+            private final long expirationNanos;
+            private final long staleNanos;
+
+            Entry(T value, long expirationNanos, long staleNanos) {
+                this.value = value;
+                this.expirationNanos = expirationNanos;
+                this.staleNanos = staleNanos;
+            }
+        }
+    }
 }
@@ -4,8 +4,13 @@ import hudson.Extension;
 import jenkins.model.GlobalConfiguration;
 import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
 import org.conjur.jenkins.jwtauth.JwtAuthenticationService;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,7 +24,9 @@ public class JwtAuthenticationServiceImpl extends JwtAuthenticationService {
 	private static final String DISPLAY_NAME = "Conjur JWT endpoint";
 
 	/**
-	 * get the public key based on the Global Configuration
+	 * get the public key based on the Global Configuration.
+	 * JwkSet is precomputed when the key ring changes and served with ETag and Cache-Control headers,
+	 * request with matching If-None-Match header gets 304 response.
 	 * 
 	 * @return public key 
 	 */
@@ -31,12 +38,50 @@ public class JwtAuthenticationServiceImpl extends JwtAuthenticationService {
 				throw new HttpRequestMethodNotSupportedException("conjur-jwk-set");
 			}
 
-			return JwtToken.getJwkset().toString(4);
+			JwtKeyRing.Jwks jwks = JwtKeyRing.publishedJwks();
+			StaplerResponse response = Stapler.getCurrentResponse();
+			if (response != null) {
+				response.setHeader("ETag", jwks.getEtag());
+				response.setHeader("Cache-Control", jwks.isCacheable()
+						? String.format("public, max-age=%d", JwtKeyRing.publicationLeadInSeconds(result) / 2)
+						: "no-cache");
+			}
+			StaplerRequest request = Stapler.getCurrentRequest();
+			if (request != null && etagMatches(request.getHeader("If-None-Match"), jwks.getEtag())) {
+				throw HttpResponses.status(HttpServletResponse.SC_NOT_MODIFIED);
+			}
+
+			return jwks.getBody();
+		} catch (HttpResponses.HttpResponseException ex) {
+			throw ex;
 		} catch (Exception ex) {
 			LOGGER.log(Level.SEVERE,ex.getMessage());
 		}
 		return null;
 	}
+
+	/**
+	 * Check If-None-Match header against entity tag
+	 *
+	 * @param ifNoneMatch header value, may contain list of tags
+	 * @param etag current entity tag
+	 * @return true if one of the tags matches
+	 */
+	static boolean etagMatches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String tag : ifNoneMatch.split(",")) {
+			String trimmed = tag.trim();
+			if (trimmed.startsWith("W/")) {
+				trimmed = trimmed.substring(2);
+			}
+			if ("*".equals(trimmed) || etag.equals(trimmed)) {
+				return true;
+			}
+		}
+		return false;
+	}
 	
 	/**
 	 * Get the IconFileName
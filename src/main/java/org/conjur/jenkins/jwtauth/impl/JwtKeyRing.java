@@ -0,0 +1,332 @@
+package org.conjur.jenkins.jwtauth.impl;
+
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import jenkins.util.Timer;
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Ring of keys used to sign JWT tokens.
+ * Keys are kept in an immutable list which is replaced as a whole, so signing and reading of JwkSet
+ * never wait for key generation. Next key is generated in background well before the current one expires,
+ * as long as JWT authentication is selected or tokens are being signed.
+ * Serialized JwkSet is computed whenever the ring changes.
+ */
+public final class JwtKeyRing {
+    private static final Logger LOGGER = Logger.getLogger(JwtKeyRing.class.getName());
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("MMddkkmmss").withZone(ZoneId.systemDefault());
+
+    static final long MAINTENANCE_PERIOD_SECONDS = 60;
+
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Collections.emptyList()));
+    private static final Object generationLock = new Object();
+    private static final AtomicBoolean maintenanceRequested = new AtomicBoolean(false);
+    private static volatile long lastSignedAt = Long.MIN_VALUE;
+
+    private JwtKeyRing() {
+        super();
+    }
+
+    /**
+     * Return key which will be valid until the token expires.
+     * Key is generated inline only when the ring is empty, e.g. right after start.
+     *
+     * @param expiration token expiration time in seconds
+     * @return signing key
+     */
+    static JwtRsaDigitalSignatureKey signingKey(long expiration) {
+        long currentTime = System.currentTimeMillis() / 1000;
+        long maxKeyTimeInSec = keyLifetimeInSeconds();
+        lastSignedAt = currentTime;
+
+        JwtRsaDigitalSignatureKey result = findSigningKey(snapshot.get().keys, currentTime, maxKeyTimeInSec, expiration);
+        if (result == null) {
+            synchronized (generationLock) {
+                result = findSigningKey(snapshot.get().keys, currentTime, maxKeyTimeInSec, expiration);
+                if (result == null) {
+                    LOGGER.log(Level.FINE, "signingKey() no valid key in ring, generating new key");
+                    result = generateKey();
+                    publish(result, currentTime, maxKeyTimeInSec);
+                }
+            }
+        }
+
+        if (needsNextKey(snapshot.get().keys, currentTime, maxKeyTimeInSec)) {
+            requestMaintenance();
+        }
+        return result;
+    }
+
+    /**
+     * @return keys which are not expired, oldest first
+     */
+    static List<JwtRsaDigitalSignatureKey> publishedKeys() {
+        long currentTime = System.currentTimeMillis() / 1000;
+        long maxKeyTimeInSec = keyLifetimeInSeconds();
+        return snapshot.get().keys.stream()
+                .filter(key -> isValid(key, currentTime, maxKeyTimeInSec))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return serialized JwkSet of keys in the ring
+     */
+    static Jwks publishedJwks() {
+        return snapshot.get().jwks;
+    }
+
+    /**
+     * Minimal time between publishing a key pre-generated in background and signing the first token with it.
+     * JwkSet may be cached by clients for part of this time.
+     *
+     * @param globalConfig GlobalConjurConfiguration
+     * @return time in seconds
+     */
+    static long publicationLeadInSeconds(GlobalConjurConfiguration globalConfig) {
+        long maxKeyTimeInSec = globalConfig.getKeyLifetimeInMinutes() * 60;
+        long tokenDuration = globalConfig.getTokenDurationInSeconds();
+        long lead = Math.max(maxKeyTimeInSec / 2, tokenDuration + 2 * MAINTENANCE_PERIOD_SECONDS);
+        return Math.max(0, lead - tokenDuration - MAINTENANCE_PERIOD_SECONDS);
+    }
+
+    /**
+     * Generate next key if the newest one is in second half of its lifetime and drop expired keys.
+     * Keys are only generated while JWT authentication is selected or a token was signed during
+     * the last key lifetime, so controllers not using JWT never create keys.
+     */
+    static void maintain() {
+        long currentTime = System.currentTimeMillis() / 1000;
+        long maxKeyTimeInSec = keyLifetimeInSeconds();
+        try {
+            synchronized (generationLock) {
+                List<JwtRsaDigitalSignatureKey> current = snapshot.get().keys;
+                if (isInUse(currentTime, maxKeyTimeInSec) && needsNextKey(current, currentTime, maxKeyTimeInSec)) {
+                    LOGGER.log(Level.FINE, "maintain() generating next signing key");
+                    publish(generateKey(), currentTime, maxKeyTimeInSec);
+                } else if (current.stream().anyMatch(key -> !isValid(key, currentTime, maxKeyTimeInSec))) {
+                    publish(null, currentTime, maxKeyTimeInSec);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, String.format("Unable to generate JWT signing key: %s", e));
+        }
+    }
+
+    /**
+     * Remove all keys from ring
+     */
+    static void clear() {
+        synchronized (generationLock) {
+            snapshot.set(new Snapshot(Collections.emptyList()));
+            lastSignedAt = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * @return true if JWT authentication is selected or a token was signed during the last key lifetime
+     */
+    private static boolean isInUse(long currentTime, long maxKeyTimeInSec) {
+        return "JWT".equals(GlobalConjurConfiguration.get().getSelectAuthenticator())
+                || currentTime - lastSignedAt < maxKeyTimeInSec;
+    }
+
+    private static JwtRsaDigitalSignatureKey findSigningKey(List<JwtRsaDigitalSignatureKey> ring, long currentTime,
+                                                            long maxKeyTimeInSec, long expiration) {
+        JwtRsaDigitalSignatureKey newest = null;
+        for (JwtRsaDigitalSignatureKey key : ring) {
+            if (isValid(key, currentTime, maxKeyTimeInSec)) {
+                if (key.getCreationTime() + maxKeyTimeInSec > expiration) {
+                    return key;
+                }
+                newest = key;
+            }
+        }
+        // key lifetime shorter than token duration, use fresh key instead of generating one on every call
+        if (newest != null && currentTime - newest.getCreationTime() < MAINTENANCE_PERIOD_SECONDS) {
+            return newest;
+        }
+        return null;
+    }
+
+    private static boolean needsNextKey(List<JwtRsaDigitalSignatureKey> ring, long currentTime, long maxKeyTimeInSec) {
+        if (ring.isEmpty()) {
+            return true;
+        }
+        JwtRsaDigitalSignatureKey newest = ring.get(ring.size() - 1);
+        return newest.getCreationTime() + maxKeyTimeInSec - currentTime < nextKeyLeadInSeconds(maxKeyTimeInSec)
+                && currentTime - newest.getCreationTime() >= MAINTENANCE_PERIOD_SECONDS;
+    }
+
+    /**
+     * @return remaining lifetime of the newest key at which the next key is generated
+     */
+    private static long nextKeyLeadInSeconds(long maxKeyTimeInSec) {
+        return Math.max(maxKeyTimeInSec / 2, tokenDurationInSeconds() + 2 * MAINTENANCE_PERIOD_SECONDS);
+    }
+
+    private static boolean isValid(JwtRsaDigitalSignatureKey key, long currentTime, long maxKeyTimeInSec) {
+        return currentTime - key.getCreationTime() < maxKeyTimeInSec;
+    }
+
+    private static void publish(JwtRsaDigitalSignatureKey newKey, long currentTime, long maxKeyTimeInSec) {
+        List<JwtRsaDigitalSignatureKey> next = new ArrayList<>();
+        for (JwtRsaDigitalSignatureKey key : snapshot.get().keys) {
+            if (isValid(key, currentTime, maxKeyTimeInSec)) {
+                next.add(key);
+            }
+        }
+        if (newKey != null) {
+            next.add(newKey);
+        }
+        snapshot.set(new Snapshot(Collections.unmodifiableList(next)));
+    }
+
+    private static JwtRsaDigitalSignatureKey generateKey() {
+        JwtRsaDigitalSignatureKey key = new JwtRsaDigitalSignatureKey(ID_FORMAT.format(Instant.now()));
+        // generate and persist key pair before the key is published
+        key.getPublicKey();
+        return key;
+    }
+
+    private static void requestMaintenance() {
+        if (maintenanceRequested.compareAndSet(false, true)) {
+            Timer.get().submit(() -> {
+                try {
+                    maintain();
+                } finally {
+                    maintenanceRequested.set(false);
+                }
+            });
+        }
+    }
+
+    private static long keyLifetimeInSeconds() {
+        return GlobalConjurConfiguration.get().getKeyLifetimeInMinutes() * 60;
+    }
+
+    private static long tokenDurationInSeconds() {
+        return GlobalConjurConfiguration.get().getTokenDurationInSeconds();
+    }
+
+    /**
+     * Build JwkSet containing public keys of given keys
+     *
+     * @param ring keys to publish
+     * @return JwkSet as JSONObject
+     */
+    static JSONObject toJwkset(List<JwtRsaDigitalSignatureKey> ring) {
+        JSONObject jwks = new JSONObject();
+        JSONArray keys = new JSONArray();
+        for (JwtRsaDigitalSignatureKey key : ring) {
+            if (key.getPublicKey() != null) {
+                JSONObject jwk = new JSONObject();
+                jwk.put("kty", "RSA");
+                jwk.put("alg", AlgorithmIdentifiers.RSA_USING_SHA256);
+                jwk.put("kid", key.getId());
+                jwk.put("use", "sig");
+                jwk.put("key_ops", Collections.singleton("verify"));
+                jwk.put("n", Base64.getUrlEncoder().withoutPadding().encodeToString(key.getPublicKey().getModulus().toByteArray()));
+                jwk.put("e", Base64.getUrlEncoder().withoutPadding().encodeToString(key.getPublicKey().getPublicExponent().toByteArray()));
+                keys.put(jwk);
+            } else {
+                LOGGER.log(Level.FINEST, "toJwkset() key without public key ");
+            }
+        }
+        jwks.put("keys", keys);
+        return jwks;
+    }
+
+    /**
+     * Immutable state of the ring
+     */
+    private static final class Snapshot {
+        private final List<JwtRsaDigitalSignatureKey> keys;
+        private final Jwks jwks;
+
+        Snapshot(List<JwtRsaDigitalSignatureKey> keys) {
+            this.keys = keys;
+            this.jwks = new Jwks(toJwkset(keys).toString(4), !keys.isEmpty());
+        }
+    }
+
+    /**
+     * Serialized JwkSet with its entity tag
+     */
+    static final class Jwks {
+        private final String body;
+        private final String etag;
+        private final boolean cacheable;
+
+        Jwks(String body, boolean cacheable) {
+            this.body = body;
+            this.etag = "\"" + digest(body) + "\"";
+            this.cacheable = cacheable;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        /**
+         * @return false for empty JwkSet which must not be cached, as key will be added into it on first use
+         */
+        boolean isCacheable() {
+            return cacheable;
+        }
+
+        private static String digest(String value) {
+            try {
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Periodically generates next signing key and removes expired ones
+     */
+    @Extension
+    public static final class Maintenance extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.SECONDS.toMillis(MAINTENANCE_PERIOD_SECONDS);
+        }
+
+        @Override
+        public long getInitialDelay() {
+            return TimeUnit.SECONDS.toMillis(10);
+        }
+
+        @Override
+        protected void doRun() {
+            maintain();
+        }
+    }
+}
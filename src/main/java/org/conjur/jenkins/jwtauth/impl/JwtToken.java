@@ -10,14 +10,10 @@ import org.jose4j.jws.AlgorithmIdentifiers;
 import org.jose4j.jws.JsonWebSignature;
 import org.jose4j.jwx.HeaderParameterNames;
 import org.jose4j.lang.JoseException;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,8 +24,8 @@ public class JwtToken {
     private static final Logger LOGGER = Logger.getLogger(JwtToken.class.getName());
     private static final int DEFAULT_NOT_BEFORE_IN_SEC = 30;
     private static final String IDENTITY_FIELD_NAME_PATTERN = "^[a-zA-Z0-9\\-_\\\"]*$";
-    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("MMddkkmmss").withZone(ZoneId.systemDefault());
-    private static final ConcurrentLinkedQueue<JwtRsaDigitalSignatureKey> keysQueue = new ConcurrentLinkedQueue<JwtRsaDigitalSignatureKey>();
+    private static final int MAX_SIGNED_TOKENS = 1000;
+    private static final ConcurrentHashMap<String, SignedToken> signedTokens = new ConcurrentHashMap<>();
 
     /**
      * JWT Claim
@@ -68,25 +64,102 @@ public class JwtToken {
      * @param globalConfig ConjurGlobalConfiguration
      * @return JWT Token as string
      */
-    public static synchronized String getToken(Object context, GlobalConjurConfiguration globalConfig) {
+    public static String getToken(Object context, GlobalConjurConfiguration globalConfig) {
         return getToken("SecretRetrieval", context, globalConfig);
 
     }
 
     /**
-     * return the JWT Token for the pluginAction and Context
+     * return the JWT Token for the pluginAction and Context.
+     * Signed tokens are reused for the same context and settings until configured part of token duration elapsed.
      *
      * @param pluginAction action name
      * @param context      Context to which JWT will be created
      * @param globalConfig GlobalConjurConfiguration
      * @return JWT Token as String
      */
-    public static synchronized String getToken(String pluginAction, Object context, GlobalConjurConfiguration globalConfig) {
+    public static String getToken(String pluginAction, Object context, GlobalConjurConfiguration globalConfig) {
+        String key = signedTokenKey(pluginAction, context, globalConfig);
+        long currentTime = System.currentTimeMillis();
+        if (key != null) {
+            SignedToken cached = signedTokens.get(key);
+            if (cached != null && currentTime < cached.reuseUntil) {
+                return cached.token;
+            }
+        }
+
         JwtToken unsignedToken = getUnsignedToken(pluginAction, context, globalConfig);
-        if (unsignedToken != null) {
-            return unsignedToken.sign();
+        if (unsignedToken == null) {
+            return null;
+        }
+        String token = unsignedToken.sign();
+
+        if (key != null) {
+            long reuseMillis = globalConfig.getTokenDurationInSeconds() * 1000 * globalConfig.getJwtReusePercentage() / 100;
+            if (reuseMillis > 0) {
+                if (signedTokens.size() >= MAX_SIGNED_TOKENS) {
+                    signedTokens.values().removeIf(t -> t.reuseUntil <= currentTime);
+                }
+                if (signedTokens.size() < MAX_SIGNED_TOKENS) {
+                    signedTokens.put(key, new SignedToken(token, currentTime + reuseMillis));
+                }
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Forget all signed tokens, called when JWT settings change
+     */
+    public static void invalidateSignedTokens() {
+        signedTokens.clear();
+    }
+
+    /**
+     * Build the key identifying claims of token: action, user, context identity, audience and identity format settings
+     *
+     * @return key or null if token for this context should not be reused
+     */
+    static String signedTokenKey(String pluginAction, Object context, GlobalConjurConfiguration globalConfig) {
+        if (globalConfig == null || globalConfig.getJwtReusePercentage() <= 0) {
+            return null;
+        }
+
+        String contextIdentity;
+        if (context instanceof Run) {
+            Run<?, ?> run = (Run<?, ?>) context;
+            contextIdentity = "run:" + run.getParent().getFullName() + "#" + run.getNumber();
+        } else if (context instanceof AbstractItem) {
+            contextIdentity = "item:" + ((AbstractItem) context).getFullName();
+        } else if (context instanceof Hudson) {
+            contextIdentity = "global";
+        } else {
+            return null;
+        }
+
+        @SuppressWarnings("deprecation") Authentication authentication = Jenkins.getAuthentication();
+        return String.join("|", String.valueOf(pluginAction), authentication.getName(), contextIdentity,
+                String.valueOf(Jenkins.get().getRootUrl()),
+                String.valueOf(globalConfig.getJwtAudience()),
+                String.valueOf(globalConfig.getTokenDurationInSeconds()),
+                String.valueOf(globalConfig.getEnableIdentityFormatFieldsFromToken()),
+                String.valueOf(globalConfig.getIdentityFormatFieldsFromToken()),
+                String.valueOf(globalConfig.getSelectIdentityFormatToken()),
+                String.valueOf(globalConfig.getSelectIdentityFieldsSeparator()),
+                String.valueOf(globalConfig.getidentityFieldName()));
+    }
+
+    /**
+     * Signed token with time until it can be reused
+     */
+    private static final class SignedToken {
+        private final String token;
+        private final long reuseUntil;
+
+        SignedToken(String token, long reuseUntil) {
+            this.token = token;
+            this.reuseUntil = reuseUntil;
         }
-        return null;
     }
 
     /**
@@ -96,7 +169,7 @@ public class JwtToken {
      * @param context
      * @return JWTToken
      */
-    public synchronized static JwtToken getUnsignedToken(String pluginAction, Object context, GlobalConjurConfiguration globalConfig) {
+    public static JwtToken getUnsignedToken(String pluginAction, Object context, GlobalConjurConfiguration globalConfig) {
         if (context == null) {
             LOGGER.log(Level.SEVERE, "Cannot get token for null context!");
             return null;
@@ -253,93 +326,21 @@ public class JwtToken {
     }
 
     /**
-     * retrieves the CurrentSigningKey for the JWT Token
+     * retrieves the CurrentSigningKey for the JWT Token from the key ring
      *
      * @param jwtToken
      * @return key based on JwtRsaDigitalSignatureKey
      */
-    protected static synchronized JwtRsaDigitalSignatureKey getCurrentSigningKey(JwtToken jwtToken) {
-
-        JwtRsaDigitalSignatureKey result = null;
-        long currentTime = System.currentTimeMillis() / 1000;
-        long maxKeyTimeInSec = GlobalConjurConfiguration.get().getKeyLifetimeInMinutes() * 60;
-
-        // access via Queue Iterator list
-        Iterator<JwtRsaDigitalSignatureKey> iterator = keysQueue.iterator();
-
-        while (iterator.hasNext()) {
-            JwtRsaDigitalSignatureKey key = iterator.next();
-            if (key != null) {
-                if (currentTime - key.getCreationTime() < maxKeyTimeInSec) {
-
-                    if (key.getCreationTime() + maxKeyTimeInSec > jwtToken.claim.getLong("exp")) {
-                        result = key;
-                        break;
-                    }
-                } else {
-                    LOGGER.log(Level.FINEST, "getCurrentSigningKey() expired key lifetime ");
-                    result = null;
-                    iterator.remove();// Safe removal using iterator
-                }
-            } else {
-                LOGGER.log(Level.FINEST, "getCurrentSigningKey() Empty key or key without public key ");
-                result = null;
-                iterator.remove(); // Remove invalid key or key without public key
-            }
-        }
-        if (result == null) {
-            String id = ID_FORMAT.format(Instant.now());
-            result = new JwtRsaDigitalSignatureKey(id);
-            keysQueue.add(result);
-        }
-        return result;
+    protected static JwtRsaDigitalSignatureKey getCurrentSigningKey(JwtToken jwtToken) {
+        return JwtKeyRing.signingKey(jwtToken.claim.getLong("exp"));
     }
 
     /**
-     * check for the key creation time is < max_key_time_in_sec,if true then
-     * generate new JwkSet
+     * generate JwkSet from keys in the key ring which are not expired
      *
      * @return JwkSet as JSONObject
      */
-    protected static synchronized JSONObject getJwkset() {
-
-        JSONObject jwks = new JSONObject();
-        JSONArray keys = new JSONArray();
-
-        long currentTime = System.currentTimeMillis() / 1000;
-        try {
-            long maxKeyTimeInSec = GlobalConjurConfiguration.get().getKeyLifetimeInMinutes() * 60;
-
-            // access via Queue Iterator
-            Iterator<JwtRsaDigitalSignatureKey> iterator = keysQueue.iterator();
-            while (iterator.hasNext()) {
-                JwtRsaDigitalSignatureKey key = iterator.next();
-                if (key != null && key.getPublicKey() != null) {
-                    if (currentTime - key.getCreationTime() < maxKeyTimeInSec) {
-                        JSONObject jwk = new JSONObject();
-                        jwk.put("kty", "RSA");
-                        jwk.put("alg", AlgorithmIdentifiers.RSA_USING_SHA256);
-                        jwk.put("kid", key.getId());
-                        jwk.put("use", "sig");
-                        jwk.put("key_ops", Collections.singleton("verify"));
-                        jwk.put("n", Base64.getUrlEncoder().withoutPadding().encodeToString(key.getPublicKey().getModulus().toByteArray()));
-                        jwk.put("e", Base64.getUrlEncoder().withoutPadding().encodeToString(key.getPublicKey().getPublicExponent().toByteArray()));
-                        keys.put(jwk);
-
-                    } else {
-                        LOGGER.log(Level.FINEST, "getJwkset() after expire key lifetime ");
-                        iterator.remove();// Safe removal using iterator
-                    }
-                } else {
-                    LOGGER.log(Level.FINEST, "getJwkset() Empty key or key without public key ");
-                    iterator.remove(); // Remove invalid key or key without public key
-                }
-            }
-
-            jwks.put("keys", keys);
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, e.getMessage());
-        }
-        return jwks;
+    protected static JSONObject getJwkset() {
+        return JwtKeyRing.toJwkset(JwtKeyRing.publishedKeys());
     }
 }
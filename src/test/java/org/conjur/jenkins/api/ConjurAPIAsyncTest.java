@@ -0,0 +1,120 @@
+package org.conjur.jenkins.api;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hudson.util.Secret;
+import org.conjur.jenkins.configuration.ConjurConfiguration;
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
+import org.conjur.jenkins.exceptions.AuthenticationConjurException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConjurAPIAsyncTest {
+
+    private static final String ACCESS_TOKEN = "access-token";
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    private HttpServer server;
+    private final AtomicInteger authentications = new AtomicInteger();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        // stand-in Conjur authenticating one host and refusing variable "forbidden"
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/authn/myConjurAccount/host%2Fjenkins/authenticate", exchange -> {
+            authentications.incrementAndGet();
+            send(exchange, 200, ACCESS_TOKEN);
+        });
+        server.createContext("/secrets/myConjurAccount/variable/", exchange -> {
+            fetches.incrementAndGet();
+            String expected = "Token token=\"" + Base64.getEncoder().withoutPadding()
+                    .encodeToString(ACCESS_TOKEN.getBytes(StandardCharsets.UTF_8)) + "\"";
+            String variableId = exchange.getRequestURI().getPath().substring("/secrets/myConjurAccount/variable/".length());
+            if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                send(exchange, 401, "");
+            } else if ("forbidden".equals(variableId)) {
+                send(exchange, 404, "");
+            } else {
+                send(exchange, 200, "value-of-" + variableId);
+            }
+        });
+        server.start();
+
+        SystemCredentialsProvider.getInstance().getCredentials().add(new UsernamePasswordCredentialsImpl(
+                CredentialsScope.GLOBAL, "conjur-login", "Login Credential to Conjur", "host/jenkins", "api-key"));
+        ConjurConfiguration configuration = new ConjurConfiguration(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "myConjurAccount");
+        configuration.setCredentialID("conjur-login");
+        GlobalConjurConfiguration.get().setConjurConfiguration(configuration);
+        invalidateCaches();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        invalidateCaches();
+    }
+
+    @Test
+    public void testFetchSecretAsyncAuthenticatesAndFetchesSecret() throws Exception {
+        Secret secret = ConjurAPI.fetchSecretAsync(j.jenkins, "db-password").get(30, TimeUnit.SECONDS);
+
+        assertEquals("value-of-db-password", secret.getPlainText());
+        assertEquals(1, authentications.get());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testFetchSecretAsyncFailsWhenAccessIsRefused() throws Exception {
+        try {
+            ConjurAPI.fetchSecretAsync(j.jenkins, "forbidden").get(30, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AuthenticationConjurException);
+        }
+    }
+
+    @Test
+    public void testGetSecretFromConjurWaitsForAsyncFetch() {
+        Secret secret = ConjurAPI.getSecretFromConjur(j.jenkins, null, "db-password");
+
+        assertEquals("value-of-db-password", secret.getPlainText());
+        assertEquals(1, fetches.get());
+    }
+
+    private static void invalidateCaches() {
+        ConjurAPI.invalidateConfigurationCache();
+        ConjurTokenCache.invalidateAll();
+        ConjurSecretCache.invalidateAll();
+        ConjurResilience.resetCircuits();
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -36,6 +36,7 @@ import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -350,6 +351,48 @@ public class ConjurAPITest {
 
     }
 
+    @Test
+    public void testGetConjurSecretsSuccess() throws IOException {
+        try (MockedStatic<TelemetryConfiguration> mockTel = mockStatic(TelemetryConfiguration.class)) {
+            when(mockConfiguration.getApplianceURL()).thenReturn("http://conjur_server");
+            when(mockConfiguration.getAccount()).thenReturn("cucumber");
+
+            mockTel.when(TelemetryConfiguration::getTelemetryHeader).thenReturn(Base64.getUrlEncoder().encodeToString("telemetryheader".getBytes(StandardCharsets.UTF_8)));
+            byte[] token = "auth-token".getBytes();
+
+            when(mockClient.newCall(any(Request.class))).thenReturn(mockCall);
+            when(mockCall.execute()).thenReturn(mockResponse);
+            when(mockResponse.body()).thenReturn(mockBody);
+            when(mockBody.bytes()).thenReturn("{\"cucumber:variable:docker/key\":\"key\",\"cucumber:variable:docker/cert\":\"cert\"}".getBytes());
+            when(mockResponse.code()).thenReturn(200);
+
+            Map<String, byte[]> result = ConjurAPI.getConjurSecrets(mockClient, mockConfiguration, token, Arrays.asList("docker/key", "docker/cert"));
+
+            assertArrayEquals("key".getBytes(), result.get("docker/key"));
+            assertArrayEquals("cert".getBytes(), result.get("docker/cert"));
+            verify(mockClient, times(1)).newCall(argThat(request ->
+                    "cucumber:variable:docker/key,cucumber:variable:docker/cert".equals(request.url().queryParameter("variable_ids"))));
+        }
+    }
+
+    @Test
+    public void testParseResourcesStreamsVariablesWithAnnotations() throws IOException {
+        String listing = "[{\"id\":\"cucumber:variable:db/password\",\"owner\":\"cucumber:policy:root\","
+                + "\"permissions\":[{\"privilege\":\"read\"}],"
+                + "\"annotations\":[{\"name\":\"jenkins_credential_username\",\"value\":\"dbuser\",\"policy\":\"cucumber:policy:root\"}]},"
+                + "{\"id\":\"cucumber:variable:ssh/key\",\"annotations\":[{\"name\":\"Jenkins_Credential_Type\",\"value\":\"UsernameSSHKeyCredential\"}]},"
+                + "{\"id\":\"cucumber:variable:plain\",\"annotations\":[]}]";
+        List<String> found = new ArrayList<>();
+
+        int count = ConjurAPI.parseResources(new java.io.ByteArrayInputStream(listing.getBytes(StandardCharsets.UTF_8)),
+                (variableId, userName, credentialType) -> found.add(variableId + "|" + userName + "|" + credentialType));
+
+        assertEquals(3, count);
+        assertEquals(Arrays.asList("db/password|dbuser|usernamecredential",
+                "ssh/key|null|usernamesshkeycredential",
+                "plain|null|credential"), found);
+    }
+
     @Test
     public void testGetConjurSecretThrowsAuthenticationException() throws IOException {
         try (MockedStatic<TelemetryConfiguration> mockTel = mockStatic(TelemetryConfiguration.class)) {
@@ -544,6 +587,29 @@ public class ConjurAPITest {
     }
 
 
+    @Test
+    public void testGetConfigurationFromContextIsCachedPerItem() {
+        Run runMock = mock(Run.class);
+        Job jobMock = mock(Job.class);
+
+        ConjurJITJobProperty jobPropertyMock = mock(ConjurJITJobProperty.class);
+        ConjurConfiguration jobConfigMock = mock(ConjurConfiguration.class);
+
+        when(runMock.getParent()).thenReturn(jobMock);
+        when(jobMock.getFullName()).thenReturn("cached-folder/cached-job");
+        when(jobMock.getProperty(ConjurJITJobProperty.class)).thenReturn(jobPropertyMock);
+        when(jobPropertyMock.getConjurConfiguration()).thenReturn(jobConfigMock);
+        when(jobConfigMock.getInheritFromParent()).thenReturn(false);
+
+        assertSame(jobConfigMock, ConjurAPI.getConfigurationFromContext(runMock));
+        assertSame(jobConfigMock, ConjurAPI.getConfigurationFromContext(runMock));
+        verify(jobMock, times(1)).getProperty(ConjurJITJobProperty.class);
+
+        ConjurAPI.invalidateConfigurationCache();
+        assertSame(jobConfigMock, ConjurAPI.getConfigurationFromContext(runMock));
+        verify(jobMock, times(2)).getProperty(ConjurJITJobProperty.class);
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testIsInheritanceOn() {
@@ -604,6 +670,86 @@ public class ConjurAPITest {
     }
 
 
+    @Test
+    public void testResourceListingKeyIsSharedBySameIdentity() throws Exception {
+        try (MockedStatic<GlobalConfiguration> globalConfigStatic = mockStatic(GlobalConfiguration.class)) {
+            ExtensionList<GlobalConfiguration> mockExtension = mock(ExtensionList.class);
+            when(mockExtension.get(GlobalConjurConfiguration.class)).thenReturn(null);
+            globalConfigStatic.when(GlobalConfiguration::all).thenReturn(mockExtension);
+            Field authField = ConjurAPI.class.getDeclaredField("authenticator");
+            authField.setAccessible(true);
+            authField.set(null, new ConjurAPIKeyAuthenticator());
+
+            ConjurAuthnInfo first = authnInfo("host/jenkins");
+            ConjurAuthnInfo second = authnInfo("host/jenkins");
+
+            assertNotNull(ConjurAPI.resourceListingKey(first, "apps/"));
+            assertEquals(ConjurAPI.resourceListingKey(first, "apps/"), ConjurAPI.resourceListingKey(second, "apps/"));
+            assertNotEquals(ConjurAPI.resourceListingKey(first, "apps/"), ConjurAPI.resourceListingKey(first, null));
+            assertNotEquals(ConjurAPI.resourceListingKey(first, null), ConjurAPI.resourceListingKey(authnInfo("host/other"), null));
+        }
+    }
+
+    @Test
+    public void testResourceListingKeyUsesSelectedAuthenticator() throws Exception {
+        try (MockedStatic<GlobalConfiguration> globalConfigStatic = mockStatic(GlobalConfiguration.class)) {
+            when(globalConfig.getSelectAuthenticator()).thenReturn("JWT");
+            ExtensionList<GlobalConfiguration> mockExtension = mock(ExtensionList.class);
+            when(mockExtension.get(GlobalConjurConfiguration.class)).thenReturn(globalConfig);
+            globalConfigStatic.when(GlobalConfiguration::all).thenReturn(mockExtension);
+            Field authField = ConjurAPI.class.getDeclaredField("authenticator");
+            authField.setAccessible(true);
+            // authenticator selected before the global configuration was changed
+            authField.set(null, new ConjurAPIKeyAuthenticator());
+
+            String key = ConjurAPI.resourceListingKey(authnInfo("host/jenkins"), null);
+
+            assertTrue(key.startsWith("JWT|"));
+            authField.set(null, null);
+        }
+    }
+
+    @Test
+    public void testResourceListingsAreBoundedByEntries() {
+        ConjurAPI.invalidateResourceListings();
+        try {
+            int half = ConjurAPI.MAX_RESOURCE_LISTING_ENTRIES / 2;
+            long now = System.currentTimeMillis();
+            ConjurAPI.putResourceListing("oldest", resourceListing(half, now - 2, 60000));
+            ConjurAPI.putResourceListing("older", resourceListing(half, now - 1, 60000));
+            assertEquals(2 * half, ConjurAPI.resourceListingEntries());
+
+            // a few large listings count as much as many small ones, the oldest is dropped
+            ConjurAPI.putResourceListing("newest", resourceListing(10, now, 60000));
+            assertTrue(ConjurAPI.resourceListingEntries() <= ConjurAPI.MAX_RESOURCE_LISTING_ENTRIES);
+            assertEquals(half + 10, ConjurAPI.resourceListingEntries());
+
+            // listing which alone exceeds the bound is not shared
+            ConjurAPI.putResourceListing("huge", resourceListing(ConjurAPI.MAX_RESOURCE_LISTING_ENTRIES + 1, now, 60000));
+            assertEquals(half + 10, ConjurAPI.resourceListingEntries());
+        } finally {
+            ConjurAPI.invalidateResourceListings();
+        }
+    }
+
+    private static ConjurAPI.ResourceListing resourceListing(int size, long fetchedAt, long maxAgeMillis) {
+        List<ConjurAPI.ResourceEntry> resources = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            resources.add(new ConjurAPI.ResourceEntry("apps/secret" + i, null, null));
+        }
+        return new ConjurAPI.ResourceListing(resources, fetchedAt, maxAgeMillis);
+    }
+
+    private static ConjurAuthnInfo authnInfo(String login) {
+        ConjurAuthnInfo authnInfo = new ConjurAuthnInfo();
+        authnInfo.setApplianceUrl("https://conjur_server:8083");
+        authnInfo.setAccount("myConjurAccount");
+        authnInfo.setAuthnPath("authn");
+        authnInfo.setLogin(login);
+        authnInfo.setApiKey("api-key".getBytes(StandardCharsets.US_ASCII));
+        return authnInfo;
+    }
+
     // Custom Handler to capture log messages
     static class TestLogHandler extends Handler {
         private final StringBuilder logMessages = new StringBuilder();
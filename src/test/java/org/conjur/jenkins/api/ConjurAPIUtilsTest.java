@@ -144,6 +144,30 @@ public class ConjurAPIUtilsTest {
     }
 
 
+    @Test
+    public void testGetHttpClientReusesClientForSameCertificate() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, null);
+        when(certificate.getKeyStore()).thenReturn(keyStore);
+        Secret password = mock(Secret.class);
+        when(password.getPlainText()).thenReturn("password");
+        when(certificate.getPassword()).thenReturn(password);
+        ConjurConfiguration configuration = mock(ConjurConfiguration.class);
+        when(configuration.getApplianceURL()).thenReturn("https://conjur.example.com");
+        when(configuration.getCertificateCredentialID()).thenReturn("conjur-cert");
+        when(configuration.getCertificateCredentials()).thenReturn(certificate);
+        when(configuration.getCertificateFingerprint()).thenReturn(ConjurAPIUtils.certificateFingerprint(certificate));
+
+        OkHttpClient first = ConjurAPIUtils.getHttpClient(configuration);
+        OkHttpClient second = ConjurAPIUtils.getHttpClient(configuration);
+        assertSame(first, second);
+
+        ConjurAPIUtils.invalidateHttpClients();
+        OkHttpClient third = ConjurAPIUtils.getHttpClient(configuration);
+        assertNotSame(first, third);
+        assertSame(first.connectionPool(), third.connectionPool());
+    }
+
     @Test
     public void testHttpClientWithCertificateKeyManagerFailure() {
         KeyStore keyStore = mock(KeyStore.class);
@@ -0,0 +1,157 @@
+package org.conjur.jenkins.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.conjur.jenkins.exceptions.AuthenticationConjurException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConjurAsyncCallTest {
+
+    private HttpServer server;
+
+    private final OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(ConjurResilience.INSTANCE)
+            .addInterceptor(ConjurConcurrencyLimiter.INSTANCE)
+            .build();
+
+    @Before
+    public void setUp() throws IOException {
+        ConjurResilience.resetCircuits();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        ConjurResilience.resetCircuits();
+    }
+
+    @Test
+    public void testSecretIsReadFromResponseOnDispatcher() throws Exception {
+        respond(exchange -> send(exchange, 200, "secret-value"));
+
+        CompletableFuture<byte[]> future = ConjurAsyncCall.enqueue(client, secretRequest(), ConjurAsyncCallTest::readSecret);
+
+        assertEquals("secret-value", new String(future.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testHandlerFailureCompletesFutureExceptionally() throws Exception {
+        respond(exchange -> send(exchange, 404, ""));
+
+        CompletableFuture<byte[]> future = ConjurAsyncCall.enqueue(client, secretRequest(), ConjurAsyncCallTest::readSecret);
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AuthenticationConjurException);
+        }
+    }
+
+    @Test
+    public void testAwaitRethrowsFailureOfCall() {
+        respond(exchange -> send(exchange, 404, ""));
+
+        CompletableFuture<byte[]> future = ConjurAsyncCall.enqueue(client, secretRequest(), ConjurAsyncCallTest::readSecret);
+
+        assertThrows(AuthenticationConjurException.class, () -> ConjurAsyncCall.await(future));
+    }
+
+    @Test
+    public void testCancellingFutureCancelsCall() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch canceled = new CountDownLatch(1);
+        respond(exchange -> {
+            received.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, "secret-value");
+        });
+        OkHttpClient listeningClient = client.newBuilder().eventListener(new EventListener() {
+            @Override
+            public void canceled(Call call) {
+                canceled.countDown();
+            }
+        }).build();
+
+        try {
+            CompletableFuture<byte[]> future = ConjurAsyncCall.enqueue(listeningClient, secretRequest(), ConjurAsyncCallTest::readSecret);
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            future.cancel(true);
+
+            assertTrue(canceled.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testFailedRequestIsRetriedAfterBackoff() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        respond(exchange -> {
+            if (hits.incrementAndGet() == 1) {
+                send(exchange, 503, "");
+            } else {
+                send(exchange, 200, "secret-value");
+            }
+        });
+        Request request = secretRequest();
+
+        CompletableFuture<byte[]> future = ConjurAsyncCall.enqueue(client, request, ConjurAsyncCallTest::readSecret);
+
+        assertEquals("secret-value", new String(future.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertEquals(2, hits.get());
+        assertEquals(ConjurResilience.State.CLOSED, ConjurResilience.circuitFor(request.url()).getState());
+    }
+
+    private void respond(HttpHandler handler) {
+        server.createContext("/", handler);
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private Request secretRequest() {
+        return new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + "/secrets/account/variable/db").build();
+    }
+
+    private static byte[] readSecret(Response response) throws IOException {
+        if (response.code() == 404) {
+            throw new AuthenticationConjurException("No access");
+        }
+        return response.body().bytes();
+    }
+}
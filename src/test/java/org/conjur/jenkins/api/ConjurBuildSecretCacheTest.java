@@ -0,0 +1,51 @@
+package org.conjur.jenkins.api;
+
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.Secret;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConjurBuildSecretCacheTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testCacheIsAddedOnlyToRunningBuild() {
+        Run<?, ?> finished = mock(Run.class);
+        when(finished.isBuilding()).thenReturn(false);
+
+        assertNull(ConjurBuildSecretCache.forBuild(finished));
+        verify(finished, never()).addAction(any());
+
+        Run<?, ?> running = mock(Run.class);
+        when(running.isBuilding()).thenReturn(true);
+
+        assertNotNull(ConjurBuildSecretCache.forBuild(running));
+        verify(running).addAction(any(ConjurBuildSecretCache.class));
+    }
+
+    @Test
+    public void testSecretsAreWipedWhenBuildCompletes() {
+        ConjurBuildSecretCache cache = new ConjurBuildSecretCache();
+        cache.put("identity", "db/password", Secret.fromString("value"));
+        assertEquals("value", cache.get("identity", "db/password").getPlainText());
+        assertNull(cache.get("other-identity", "db/password"));
+
+        Run<?, ?> run = mock(Run.class);
+        when(run.getActions(ConjurBuildSecretCache.class)).thenReturn(Collections.singletonList(cache));
+
+        new ConjurBuildSecretCache.CleanupListener().onCompleted(run, TaskListener.NULL);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("identity", "db/password"));
+        verify(run).removeAction(cache);
+    }
+}
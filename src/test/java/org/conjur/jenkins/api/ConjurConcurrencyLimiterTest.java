@@ -0,0 +1,106 @@
+package org.conjur.jenkins.api;
+
+import okhttp3.Request;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConjurConcurrencyLimiterTest {
+
+    @Test
+    public void testRequestsUseBulkheadOfTheirKindAndAppliance() {
+        ConjurConcurrencyLimiter.Bulkhead authn = ConjurConcurrencyLimiter.bulkheadFor(
+                new Request.Builder().url("https://conjur/authn/account/host%2Fjenkins/authenticate").build());
+        assertEquals("authn", authn.getName());
+        assertEquals("https://conjur:443", authn.getAppliance());
+        assertSame(authn, ConjurConcurrencyLimiter.bulkheadFor(
+                new Request.Builder().url("https://conjur/authn-jwt/jenkins/account/authenticate").build()));
+        assertEquals("list", ConjurConcurrencyLimiter.bulkheadFor(
+                new Request.Builder().url("https://conjur/resources/account/variable?limit=100").build()).getName());
+        ConjurConcurrencyLimiter.Bulkhead fetch = ConjurConcurrencyLimiter.bulkheadFor(
+                new Request.Builder().url("https://conjur/secrets/account/variable/db%2Fpassword").build());
+        assertEquals("fetch", fetch.getName());
+
+        // a slow folder level appliance does not share limits with the global one
+        assertNotSame(fetch, ConjurConcurrencyLimiter.bulkheadFor(
+                new Request.Builder().url("https://conjur-folder:8443/secrets/account/variable/db%2Fpassword").build()));
+    }
+
+    @Test
+    public void testRequestsOverLimitAreQueued() throws Exception {
+        ConjurConcurrencyLimiter.Bulkhead bulkhead = new ConjurConcurrencyLimiter.Bulkhead("https://conjur:443", "test", 1, 1);
+        long first = bulkhead.acquire(1000);
+
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.acquire(10000);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        assertFalse(second.isDone());
+
+        bulkhead.release(first, false, true);
+        bulkhead.release(second.get(10, TimeUnit.SECONDS), false, true);
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(1, bulkhead.getMaxQueued());
+        assertEquals(2, bulkhead.getCompleted());
+    }
+
+    @Test
+    public void testQueuedRequestTimesOut() throws Exception {
+        ConjurConcurrencyLimiter.Bulkhead bulkhead = new ConjurConcurrencyLimiter.Bulkhead("https://conjur:443", "test", 1, 1);
+        bulkhead.acquire(1000);
+
+        assertThrows(ConjurConcurrencyLimiter.QueueTimeoutException.class, () -> bulkhead.acquire(10));
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    public void testAsyncRequestsOverLimitWaitWithoutBlocking() throws Exception {
+        ConjurConcurrencyLimiter.Bulkhead bulkhead = new ConjurConcurrencyLimiter.Bulkhead("https://conjur:443", "test", 1, 1);
+        CompletableFuture<Long> first = bulkhead.acquireAsync(1000);
+        assertTrue(first.isDone());
+
+        CompletableFuture<Long> second = bulkhead.acquireAsync(10000);
+        assertFalse(second.isDone());
+        assertEquals(1, bulkhead.getQueued());
+
+        bulkhead.release(first.get(), false, true);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(1, bulkhead.getInFlight());
+        assertEquals(0, bulkhead.getQueued());
+
+        CompletableFuture<Long> third = bulkhead.acquireAsync(10);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> third.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ConjurConcurrencyLimiter.QueueTimeoutException);
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    public void testLimitGrowsWhenFastAndShrinksOnOverload() throws Exception {
+        ConjurConcurrencyLimiter.Bulkhead bulkhead = new ConjurConcurrencyLimiter.Bulkhead("https://conjur:443", "test", 2, 8);
+        for (int i = 0; i < 100; i++) {
+            long first = bulkhead.acquire(1000);
+            long second = bulkhead.acquire(1000);
+            bulkhead.release(first, false, true);
+            bulkhead.release(second, false, true);
+        }
+        int grown = bulkhead.getLimit();
+        assertTrue(grown > 2);
+        assertTrue(grown <= 8);
+
+        bulkhead.release(bulkhead.acquire(1000), true, true);
+        assertTrue(bulkhead.getLimit() < grown);
+        assertEquals(1, bulkhead.getOverloaded());
+    }
+}
@@ -0,0 +1,146 @@
+package org.conjur.jenkins.api;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.conjur.jenkins.configuration.ConjurConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConjurExecutorsTest {
+
+    private static final int FETCHES = 2000;
+    // threads started by the JVM, OkHttp and the test itself while fetching
+    private static final int MARGIN = 32;
+
+    private HttpServer server;
+    private ThreadPoolExecutor serverExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        // stand-in Conjur answering every variable with its own path
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        serverExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(8);
+        // threads of the stand-in Conjur are not counted as threads of the fetches
+        serverExecutor.prestartAllCoreThreads();
+        server.setExecutor(serverExecutor);
+        server.createContext("/secrets", exchange -> {
+            byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentFetchesOnPlatformThreadsStayWithinPool() throws Exception {
+        ExecutorService executor = ConjurExecutors.newPlatformExecutor();
+        try {
+            int growth = fetchConcurrently(executor);
+            assertTrue("Platform threads grew by " + growth, growth <= ConjurExecutors.PLATFORM_THREADS + MARGIN);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentFetchesOnVirtualThreadsStayWithinCarriers() throws Exception {
+        ExecutorService executor = ConjurExecutors.newVirtualThreadExecutor();
+        // runtimes without virtual threads fall back to the platform pool as ConjurExecutors does
+        int bound = executor != null ? Runtime.getRuntime().availableProcessors() : ConjurExecutors.PLATFORM_THREADS;
+        if (executor == null) {
+            executor = ConjurExecutors.newPlatformExecutor();
+        }
+        try {
+            int growth = fetchConcurrently(executor);
+            assertTrue("Platform threads grew by " + growth, growth <= bound + MARGIN);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNestedCallRunsInCaller() throws Exception {
+        Thread outer = ConjurExecutors.get().submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        assertNotSame(Thread.currentThread(), outer);
+
+        Thread[] threads = ConjurExecutors.call(() -> new Thread[] { Thread.currentThread(),
+                ConjurExecutors.call(Thread::currentThread) });
+        assertNotSame(Thread.currentThread(), threads[0]);
+        assertSame(threads[0], threads[1]);
+        assertFalse(ConjurExecutors.inExecutor());
+    }
+
+    @Test
+    public void testCallRethrowsFailureOfTask() throws Exception {
+        try {
+            ConjurExecutors.call(() -> {
+                throw new IOException("Conjur unavailable");
+            });
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Conjur unavailable", e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch every variable through the executor, the production client and the stand-in Conjur
+     *
+     * @return growth of the platform thread count while fetching
+     */
+    private int fetchConcurrently(ExecutorService executor) throws Exception {
+        ConjurConfiguration configuration = new ConjurConfiguration(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "myConjurAccount");
+        // client used in production, with resilience and concurrency limits
+        OkHttpClient client = ConjurAPIUtils.getHttpClient(configuration);
+        byte[] token = "token".getBytes(StandardCharsets.US_ASCII);
+        // bound fetches waiting for the stand-in Conjur
+        Semaphore inFlight = new Semaphore(ConjurExecutors.PLATFORM_QUEUE_SIZE);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int before = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        List<Future<String>> fetches = new ArrayList<>(FETCHES);
+        for (int i = 0; i < FETCHES; i++) {
+            String variableId = "variable" + i;
+            inFlight.acquire();
+            fetches.add(executor.submit(() -> {
+                try {
+                    return new String(ConjurAPI.getConjurSecret(client, configuration, token, variableId), StandardCharsets.UTF_8);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        for (int i = 0; i < FETCHES; i++) {
+            assertEquals("/secrets/myConjurAccount/variable/variable" + i, fetches.get(i).get(60, TimeUnit.SECONDS));
+        }
+        return threads.getPeakThreadCount() - before;
+    }
+}
@@ -0,0 +1,71 @@
+package org.conjur.jenkins.api;
+
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.ModelObject;
+import hudson.model.Run;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConjurInheritanceCacheTest {
+
+    @Before
+    public void setUp() {
+        ConjurInheritanceCache.invalidateAll();
+    }
+
+    @After
+    public void tearDown() {
+        ConjurInheritanceCache.invalidateAll();
+    }
+
+    @Test
+    public void testBuildsShareWalkOfTheirJob() {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn("folder/job");
+        Run first = mock(Run.class);
+        Run second = mock(Run.class);
+        when(first.getParent()).thenReturn(job);
+        when(second.getParent()).thenReturn(job);
+        ModelObject folder = mock(Item.class);
+
+        String walkKey = ConjurInheritanceCache.walkKey(first, "db/password");
+        assertEquals(walkKey, ConjurInheritanceCache.walkKey(second, "db/password"));
+
+        ConjurInheritanceCache.putLevel(walkKey, first, folder);
+        assertSame(folder, ConjurInheritanceCache.getLevel(walkKey));
+
+        ConjurInheritanceCache.putLevel(walkKey, second, second);
+        assertNull(ConjurInheritanceCache.getLevel(walkKey));
+    }
+
+    @Test
+    public void testDeniedIdentityIsRemembered() {
+        assertFalse(ConjurInheritanceCache.isDenied("identity", "db/password"));
+
+        ConjurInheritanceCache.putDenied("identity", "db/password");
+
+        assertTrue(ConjurInheritanceCache.isDenied("identity", "db/password"));
+        assertFalse(ConjurInheritanceCache.isDenied("identity", "db/username"));
+        assertFalse(ConjurInheritanceCache.isDenied(null, "db/password"));
+    }
+
+    @Test
+    public void testItemInvalidationRemovesSubtreeOnly() {
+        ModelObject start = mock(ModelObject.class);
+        ModelObject level = mock(Item.class);
+        ConjurInheritanceCache.putLevel("team|db/password", start, level);
+        ConjurInheritanceCache.putLevel("team/job|db/password", start, level);
+        ConjurInheritanceCache.putLevel("teammate/job|db/password", start, level);
+
+        ConjurInheritanceCache.invalidateItem("team");
+
+        assertNull(ConjurInheritanceCache.getLevel("team|db/password"));
+        assertNull(ConjurInheritanceCache.getLevel("team/job|db/password"));
+        assertSame(level, ConjurInheritanceCache.getLevel("teammate/job|db/password"));
+    }
+}
@@ -0,0 +1,146 @@
+package org.conjur.jenkins.api;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConjurResilienceTest {
+
+    private final OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(ConjurResilience.INSTANCE)
+            .build();
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        ConjurResilience.resetCircuits();
+        // stand-in Conjur failing the first request of each path
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            int status = hits.incrementAndGet() == 1 ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        ConjurResilience.resetCircuits();
+    }
+
+    @Test
+    public void testReadIsRetried() throws Exception {
+        Request request = new Request.Builder().url(url("/secrets/account/variable/db%2Fpassword")).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void testAuthenticationIsRetried() throws Exception {
+        Request request = new Request.Builder().url(url("/authn/account/admin/authenticate"))
+                .post(RequestBody.create("api-key", MediaType.get("text/plain"))).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void testOtherWritesAreNotRetried() throws Exception {
+        Request request = new Request.Builder().url(url("/policies/account/policy/root"))
+                .post(RequestBody.create("- !user alice", MediaType.get("text/plain"))).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    public void testOpenCircuitFailsFast() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            port = socket.getLocalPort();
+        }
+        Request request = new Request.Builder()
+                .url(String.format("http://127.0.0.1:%d/secrets/account/variable/db%%2Fpassword", port)).build();
+
+        int failures = 0;
+        while (failures < ConjurResilience.FAILURE_THRESHOLD) {
+            try {
+                client.newCall(request).execute().close();
+                fail("Connection should be refused");
+            } catch (ConjurResilience.CircuitOpenException e) {
+                break;
+            } catch (IOException e) {
+                failures++;
+            }
+        }
+        assertEquals(ConjurResilience.State.OPEN,
+                ConjurResilience.circuitFor(request.url()).getState());
+
+        long start = System.nanoTime();
+        assertThrows(ConjurResilience.CircuitOpenException.class, () -> client.newCall(request).execute());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testHalfOpenCircuitLetsOneProbeThrough() throws Exception {
+        ConjurResilience.CircuitBreaker circuit = new ConjurResilience.CircuitBreaker("https://conjur:443", 0);
+        for (int i = 0; i < ConjurResilience.FAILURE_THRESHOLD; i++) {
+            circuit.acquire();
+            circuit.onFailure();
+        }
+        assertEquals(ConjurResilience.State.OPEN, circuit.getState());
+
+        // open time elapsed, first caller probes while others still fail fast
+        circuit.acquire();
+        assertEquals(ConjurResilience.State.HALF_OPEN, circuit.getState());
+        assertThrows(ConjurResilience.CircuitOpenException.class, circuit::acquire);
+
+        circuit.onFailure();
+        assertEquals(ConjurResilience.State.OPEN, circuit.getState());
+
+        circuit.acquire();
+        circuit.onSuccess();
+        assertEquals(ConjurResilience.State.CLOSED, circuit.getState());
+        circuit.acquire();
+    }
+
+    @Test
+    public void testBackoffHasFullJitterUpToCap() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long ceiling = Math.min(ConjurResilience.BACKOFF_CAP_MILLIS,
+                    ConjurResilience.BACKOFF_BASE_MILLIS << (attempt - 1));
+            for (int i = 0; i < 100; i++) {
+                long backoff = ConjurResilience.backoffMillis(attempt);
+                assertTrue(backoff >= 0);
+                assertTrue(backoff <= ceiling);
+            }
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,58 @@
+package org.conjur.jenkins.api;
+
+import hudson.util.Secret;
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.*;
+
+public class ConjurSecretCacheTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private GlobalConjurConfiguration globalConfig;
+
+    @Before
+    public void setUp() {
+        ConjurSecretCache.invalidateAll();
+        globalConfig = GlobalConjurConfiguration.get();
+        globalConfig.setSecretCacheTtlInSeconds(60);
+    }
+
+    @After
+    public void tearDown() {
+        ConjurSecretCache.invalidateAll();
+    }
+
+    @Test
+    public void testSecretIsCachedPerIdentity() {
+        ConjurSecretCache.put("identity-a", "db/password", Secret.fromString("value"));
+
+        Secret cached = ConjurSecretCache.get("identity-a", "db/password");
+        assertNotNull(cached);
+        assertEquals("value", cached.getPlainText());
+        assertNull(ConjurSecretCache.get("identity-b", "db/password"));
+
+        ConjurSecretCache.invalidate("db/password");
+        assertNull(ConjurSecretCache.get("identity-a", "db/password"));
+    }
+
+    @Test
+    public void testCacheIsDisabledWithoutTtlAndBounded() {
+        globalConfig.setSecretCacheTtlInSeconds(0);
+        ConjurSecretCache.put("identity", "db/password", Secret.fromString("value"));
+        assertEquals(0, ConjurSecretCache.size());
+
+        globalConfig.setSecretCacheTtlInSeconds(60);
+        globalConfig.setSecretCacheMaxEntries(2);
+        for (int i = 0; i < 5; i++) {
+            ConjurSecretCache.put("identity", "variable" + i, Secret.fromString("value" + i));
+        }
+        assertEquals(2, ConjurSecretCache.size());
+    }
+}
@@ -0,0 +1,70 @@
+package org.conjur.jenkins.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConjurSingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ConjurSingleFlight.Call call = () -> {
+            calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "secret".getBytes(StandardCharsets.UTF_8);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = executor.submit(() -> ConjurSingleFlight.execute("key", call));
+            Future<byte[]> second = executor.submit(() -> ConjurSingleFlight.execute("key", call));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (ConjurSingleFlight.parties("key") < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            byte[] firstResult = first.get(10, TimeUnit.SECONDS);
+            byte[] secondResult = second.get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, calls.get());
+            assertNotSame(firstResult, secondResult);
+            Arrays.fill(firstResult, (byte) 0);
+            assertEquals("secret", new String(secondResult, StandardCharsets.UTF_8));
+            assertEquals(0, ConjurSingleFlight.parties("key"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsPropagatedAndNotKept() throws Exception {
+        try {
+            ConjurSingleFlight.execute("failing", () -> {
+                throw new IOException("unavailable");
+            });
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals("unavailable", e.getMessage());
+        }
+
+        byte[] result = ConjurSingleFlight.execute("failing", () -> "value".getBytes(StandardCharsets.UTF_8));
+        assertEquals("value", new String(result, StandardCharsets.UTF_8));
+    }
+}
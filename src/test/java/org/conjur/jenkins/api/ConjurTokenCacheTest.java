@@ -0,0 +1,93 @@
+package org.conjur.jenkins.api;
+
+import hudson.model.ModelObject;
+import org.conjur.jenkins.authenticator.AbstractAuthenticator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ConjurTokenCacheTest {
+
+    @Mock
+    private AbstractAuthenticator authenticator;
+
+    @Mock
+    private ModelObject context;
+
+    private ConjurAuthnInfo authnInfo;
+
+    @Before
+    public void setUp() {
+        ConjurTokenCache.invalidateAll();
+        when(authenticator.getName()).thenReturn("APIKey");
+        authnInfo = new ConjurAuthnInfo();
+        authnInfo.setApplianceUrl("https://conjur.example.com");
+        authnInfo.setAccount("myConjurAccount");
+        authnInfo.setAuthnPath("authn");
+        authnInfo.setLogin("host/jenkins");
+        authnInfo.setApiKey("api-key".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @After
+    public void tearDown() {
+        ConjurTokenCache.invalidateAll();
+    }
+
+    @Test
+    public void testTokenIsReusedForSameIdentity() throws Exception {
+        when(authenticator.getAuthorizationToken(any(), any())).thenAnswer(i -> "token".getBytes(StandardCharsets.US_ASCII));
+
+        byte[] first = ConjurTokenCache.getToken(authenticator, authnInfo, context);
+        Arrays.fill(first, (byte) 0);
+        byte[] second = ConjurTokenCache.getToken(authenticator, authnInfo, context);
+
+        assertEquals("token", new String(second, StandardCharsets.US_ASCII));
+        verify(authenticator, times(1)).getAuthorizationToken(any(), any());
+    }
+
+    @Test
+    public void testTokenIsNotCachedWithoutApplianceUrl() throws Exception {
+        authnInfo.setApplianceUrl(null);
+        when(authenticator.getAuthorizationToken(any(), any())).thenAnswer(i -> "token".getBytes(StandardCharsets.US_ASCII));
+
+        ConjurTokenCache.getToken(authenticator, authnInfo, context);
+        ConjurTokenCache.getToken(authenticator, authnInfo, context);
+
+        verify(authenticator, times(2)).getAuthorizationToken(any(), any());
+        assertEquals(0, ConjurTokenCache.size());
+    }
+
+    @Test
+    public void testCacheKeyUsesAllStableJwtClaims() {
+        authnInfo.setLogin(null);
+
+        authnInfo.setApiKey(jwt("{\"sub\":\"job\",\"jenkins_full_name\":\"team-a/job\",\"jti\":\"1\",\"iat\":1}"));
+        String key = ConjurTokenCache.cacheKey(authenticator, authnInfo);
+        authnInfo.setApiKey(jwt("{\"iat\":2,\"jti\":\"2\",\"jenkins_full_name\":\"team-a/job\",\"sub\":\"job\"}"));
+        String resigned = ConjurTokenCache.cacheKey(authenticator, authnInfo);
+        authnInfo.setApiKey(jwt("{\"sub\":\"job\",\"jenkins_full_name\":\"team-b/job\",\"jti\":\"3\",\"iat\":3}"));
+        String otherJob = ConjurTokenCache.cacheKey(authenticator, authnInfo);
+
+        assertNotNull(key);
+        assertEquals(key, resigned);
+        assertNotEquals(key, otherJob);
+    }
+
+    private static byte[] jwt(String claims) {
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return ("jwt=header." + payload + ".signature").getBytes(StandardCharsets.US_ASCII);
+    }
+}
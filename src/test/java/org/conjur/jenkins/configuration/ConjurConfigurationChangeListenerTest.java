@@ -0,0 +1,31 @@
+package org.conjur.jenkins.configuration;
+
+import com.cloudbees.hudson.plugins.folder.Folder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.*;
+
+public class ConjurConfigurationChangeListenerTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void testOnlyConjurConfigurationChangesAreDetected() throws Exception {
+        Folder folder = j.jenkins.createProject(Folder.class, "team");
+        assertFalse(ConjurConfigurationChangeListener.conjurConfigurationChanged(folder));
+
+        // adding the property saves the folder, the listener remembers its configuration
+        FolderConjurConfiguration property = new FolderConjurConfiguration(
+                new ConjurConfiguration("https://conjur.example.com", "myConjurAccount"));
+        folder.addProperty(property);
+        folder.setDescription("saved for another reason");
+        assertFalse(ConjurConfigurationChangeListener.conjurConfigurationChanged(folder));
+
+        property.getConjurConfiguration().setAccount("otherAccount");
+        assertTrue(ConjurConfigurationChangeListener.conjurConfigurationChanged(folder));
+        assertFalse(ConjurConfigurationChangeListener.conjurConfigurationChanged(folder));
+    }
+}
@@ -3,11 +3,16 @@ package org.conjur.jenkins.configuration;
 import com.cloudbees.plugins.credentials.CredentialsProvider;
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.CertificateCredentials;
+import com.cloudbees.plugins.credentials.common.StandardCertificateCredentials;
 import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.domains.Domain;
 import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
 import hudson.model.Descriptor;
 import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.security.ACL;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import org.conjur.jenkins.conjursecrets.ConjurSecretCredentialsImpl;
@@ -26,12 +31,21 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.security.KeyStore;
+import java.util.List;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConjurConfigurationTest {
@@ -213,6 +227,83 @@ public class ConjurConfigurationTest {
         assertEquals("parent-owner", merged.getOwnerFullName());
     }
 
+    @Test
+    public void testMergeWithParentMergesResourcePathPrefix() {
+        ConjurConfiguration parentConfig = new ConjurConfiguration("https://parent.com", "parent-account");
+        parentConfig.setResourcePathPrefix(" jenkins/ ");
+
+        ConjurConfiguration childConfig = new ConjurConfiguration("", "");
+        assertEquals("jenkins/", childConfig.mergeWithParent(parentConfig).getResourcePathPrefix());
+
+        childConfig.setResourcePathPrefix("jenkins/team-a/");
+        assertEquals("jenkins/team-a/", childConfig.mergeWithParent(parentConfig).getResourcePathPrefix());
+    }
+
+    @Test
+    public void testSetCertificateCredentialIDDoesNotLookupCredentials() {
+        try (MockedStatic<CredentialsProvider> providerMock = mockStatic(CredentialsProvider.class)) {
+            ConjurConfiguration parentConfig = new ConjurConfiguration("https://parent.com", "parent-account");
+            parentConfig.setCertificateCredentialID("parent-cert-cred");
+            ConjurConfiguration merged = new ConjurConfiguration("", "").mergeWithParent(parentConfig);
+
+            assertEquals("parent-cert-cred", merged.getCertificateCredentialID());
+            providerMock.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void testGetCertificateCredentialsSkipsConjurProvider() {
+        StandardCertificateCredentials certificate = mock(StandardCertificateCredentials.class);
+        when(certificate.getId()).thenReturn("conjur-certificate");
+        config.setCertificateCredentialID("conjur-certificate");
+
+        try (MockedStatic<CredentialsProvider> providerMock = mockStatic(CredentialsProvider.class)) {
+            providerMock.when(() -> CredentialsProvider.lookupCredentials(eq(CertificateCredentials.class),
+                    any(ItemGroup.class), eq(ACL.SYSTEM), anyList())).thenAnswer(invocation -> {
+                        // ConjurCredentialProvider returns no credentials during the lookup
+                        assertTrue(ConjurConfiguration.isResolvingCertificate());
+                        return List.of(certificate);
+                    });
+
+            assertSame(certificate, config.getCertificateCredentials());
+            assertFalse(ConjurConfiguration.isResolvingCertificate());
+        }
+    }
+
+    @Test
+    public void testSerializedCertificateCredentialsAreMigrated() throws Exception {
+        StandardCertificateCredentials certificate = mock(StandardCertificateCredentials.class);
+        ConjurConfiguration oldConfig = new ConjurConfiguration("https://conjur.com", "account");
+        oldConfig.setCertificateCredentialID("conjur-certificate");
+        // field read from configuration saved by older version
+        Field certificateCredentials = ConjurConfiguration.class.getDeclaredField("certificateCredentials");
+        certificateCredentials.setAccessible(true);
+        certificateCredentials.set(oldConfig, certificate);
+
+        try (MockedStatic<CredentialsProvider> providerMock = mockStatic(CredentialsProvider.class)) {
+            assertSame(oldConfig, oldConfig.readResolve());
+            assertSame(certificate, oldConfig.getCertificateCredentials());
+            assertNull(certificateCredentials.get(oldConfig));
+            providerMock.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void testCertificateFingerprintIsCalculatedOnce() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, null);
+        StandardCertificateCredentials certificate = mock(StandardCertificateCredentials.class);
+        when(certificate.getId()).thenReturn("conjur-certificate");
+        when(certificate.getKeyStore()).thenReturn(keyStore);
+        SystemCredentialsProvider.getInstance().getCredentials().add(certificate);
+        config.setCertificateCredentialID("conjur-certificate");
+
+        String fingerprint = config.getCertificateFingerprint();
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, config.getCertificateFingerprint());
+        verify(certificate, times(1)).getKeyStore();
+    }
+
     @Test
     public void testApplianceUrlTrailingSlashRemoval() {
         ConjurConfiguration withSlash = new ConjurConfiguration("https://jenkins/", "test-account");
@@ -11,6 +11,7 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.util.Secret;
 import jenkins.model.Jenkins;
+import org.conjur.jenkins.credentials.ConjurCredentialIdRequirement;
 import org.conjur.jenkins.credentials.ConjurCredentialProvider;
 import org.jenkinsci.plugins.credentialsbinding.BindingDescriptor;
 import org.jenkinsci.plugins.credentialsbinding.MultiBinding;
@@ -197,7 +198,8 @@ public class ConjurSecretCredentialsBindingTest<I> {
     @Test
     public void testBindReturnsEmptyEnvironmentWhenCredentialNotFound() throws Exception {
         mockStatic(CredentialsProvider.class);
-        when(CredentialsProvider.findCredentialById(eq(TEST_CREDENTIAL_ID), eq(ConjurSecretCredentials.class), eq(mockRun)))
+        when(CredentialsProvider.findCredentialById(eq(TEST_CREDENTIAL_ID), eq(ConjurSecretCredentials.class), eq(mockRun),
+                any(ConjurCredentialIdRequirement.class)))
                 .thenReturn(null);
         MultiBinding.MultiEnvironment env = secretBinding.bind(mockRun, mockFilePath, mockLauncher, mockListener);
 
@@ -206,7 +208,8 @@ public class ConjurSecretCredentialsBindingTest<I> {
 
     private void mockCredentialLookup() {
         mockStatic(CredentialsProvider.class);
-        when(CredentialsProvider.findCredentialById(eq(TEST_CREDENTIAL_ID), eq(ConjurSecretCredentials.class), eq(mockRun)))
+        when(CredentialsProvider.findCredentialById(eq(TEST_CREDENTIAL_ID), eq(ConjurSecretCredentials.class), eq(mockRun),
+                any(ConjurCredentialIdRequirement.class)))
                 .thenReturn(mockCredentials);
     }
 }
\ No newline at end of file
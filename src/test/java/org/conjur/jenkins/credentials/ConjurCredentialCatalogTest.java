@@ -0,0 +1,43 @@
+package org.conjur.jenkins.credentials;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConjurCredentialCatalogTest {
+
+    @Test
+    public void testCatalogIndexesCredentialsByIdAndType() {
+        StandardCredentials secret = mockCredential(StandardCredentials.class, "db/password");
+        StandardUsernamePasswordCredentials username = mockCredential(StandardUsernamePasswordCredentials.class, "username-db/password");
+
+        ConjurCredentialCatalog catalog = ConjurCredentialCatalog.of(Arrays.asList(secret, username));
+
+        assertSame(secret, catalog.getById("db/password"));
+        assertSame(username, catalog.getById("username-db/password"));
+        assertNull(catalog.getById("other"));
+
+        List<StandardUsernamePasswordCredentials> bucket = catalog.getByType(StandardUsernamePasswordCredentials.class);
+        assertEquals(1, bucket.size());
+        assertSame(bucket, catalog.getByType(StandardUsernamePasswordCredentials.class));
+        assertEquals(2, catalog.getByType(StandardCredentials.class).size());
+    }
+
+    @Test
+    public void testCatalogOfNullIsEmpty() {
+        assertSame(ConjurCredentialCatalog.EMPTY, ConjurCredentialCatalog.of(null));
+        assertEquals(0, ConjurCredentialCatalog.EMPTY.size());
+    }
+
+    private static <C extends StandardCredentials> C mockCredential(Class<C> type, String id) {
+        C credential = mock(type);
+        when(credential.getId()).thenReturn(id);
+        return credential;
+    }
+}
@@ -0,0 +1,54 @@
+package org.conjur.jenkins.credentials;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConjurCredentialIdFilterTest {
+
+    @Test
+    public void testFilterHasNoFalseNegatives() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add("jenkins/app" + i + "/password");
+            ids.add("username-jenkins/app" + i + "/password");
+        }
+
+        ConjurCredentialIdFilter filter = ConjurCredentialIdFilter.of(ids);
+
+        for (String id : ids) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    public void testFilterContainsTypedForms() {
+        ConjurCredentialIdFilter filter = ConjurCredentialIdFilter.of(List.of("jenkins/app/password"));
+
+        assertTrue(filter.mightContain("jenkins/app/password"));
+        for (String prefix : ConjurCredentialIdFilter.TYPED_PREFIXES) {
+            assertTrue(filter.mightContain(prefix + "jenkins/app/password"));
+        }
+    }
+
+    @Test
+    public void testFilterRejectsMostUnknownIds() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add("jenkins/app" + i + "/password");
+        }
+        ConjurCredentialIdFilter filter = ConjurCredentialIdFilter.of(ids);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter.mightContain("github-token-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50);
+        assertFalse(filter.mightContain(null));
+    }
+}
@@ -2,7 +2,12 @@
 package org.conjur.jenkins.credentials;
 
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import hudson.model.Item;
 import hudson.model.ModelObject;
+import hudson.security.ACL;
+import org.conjur.jenkins.api.ConjurAPI;
+import org.conjur.jenkins.configuration.ConjurConfiguration;
+import org.conjur.jenkins.conjursecrets.ConjurSecretCredentials;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -10,9 +15,13 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
@@ -91,6 +100,143 @@ public class ConjurCredentialProviderTest {
         assertNotEquals(firstCallValue, thirdCallValue);
     }
 
+    @Test
+    public void testMemoizeWithBackgroundRefreshServesStaleValue() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> refreshes = new ArrayList<>();
+        Supplier<Integer> memoizedSupplier = ConjurCustomSuppliers.memoizeWithBackgroundRefresh(loads::incrementAndGet,
+                () -> Duration.ofMillis(50), () -> Duration.ofMinutes(1), refreshes::add);
+
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        Thread.sleep(60);
+
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+        assertEquals(Integer.valueOf(2), memoizedSupplier.get());
+    }
+
+    @Test
+    public void testFailedBackgroundRefreshKeepsStaleValue() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> refreshes = new ArrayList<>();
+        Supplier<Integer> memoizedSupplier = ConjurCustomSuppliers.memoizeWithBackgroundRefresh(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("Conjur unavailable");
+            }
+            return 1;
+        }, () -> Duration.ofMillis(50), () -> Duration.ofMillis(100), refreshes::add, () -> 0);
+
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        Thread.sleep(60);
+
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        refreshes.get(0).run();
+        assertEquals(Integer.valueOf(1), memoizedSupplier.get());
+        assertEquals(2, loads.get());
+
+        // once the value is too stale the failed load memoizes the fallback
+        Thread.sleep(150);
+        assertEquals(Integer.valueOf(0), memoizedSupplier.get());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testGetStoreSkipsObjectWithoutConjurConfiguration() {
+        ModelObject mockObject = mock(ModelObject.class);
+        ConjurCredentialStoreRegistry.clear();
+        try (MockedStatic<ConjurAPI> conjurAPIMockedStatic = mockStatic(ConjurAPI.class)) {
+            conjurAPIMockedStatic.when(() -> ConjurAPI.getConfigurationFromContext(mockObject)).thenReturn(new ConjurConfiguration());
+
+            assertNull(new ConjurCredentialProvider().getStore(mockObject));
+            assertEquals(0, ConjurCredentialStoreRegistry.size());
+        }
+    }
+
+    @Test
+    public void testResolveLevelsKeepsChainOrder() {
+        List<ModelObject> chain = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            chain.add(mock(ModelObject.class));
+        }
+        ConjurConfiguration configuration = new ConjurConfiguration("https://conjur.example.com", "myConjurAccount");
+        ConjurCredentialStoreRegistry.clear();
+        try (MockedStatic<ConjurAPI> conjurAPIMockedStatic = mockStatic(ConjurAPI.class)) {
+            conjurAPIMockedStatic.when(() -> ConjurAPI.getConfigurationFromContext(any())).thenReturn(configuration);
+
+            List<Integer> results = new ConjurCredentialProvider().resolveLevels(chain, chain::indexOf);
+
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4), results);
+        } finally {
+            ConjurCredentialStoreRegistry.clear();
+        }
+    }
+
+    @Test
+    public void testLookupByIdUsesCatalogIndex() {
+        Item item = mock(Item.class);
+        ConjurSecretCredentials credential = mock(ConjurSecretCredentials.class);
+        when(credential.getId()).thenReturn("db-password");
+        AtomicInteger loads = new AtomicInteger();
+        ConjurConfiguration configuration = new ConjurConfiguration("https://conjur.example.com", "myConjurAccount");
+        ConjurCredentialStoreRegistry.clear();
+        try (MockedStatic<ConjurAPI> conjurAPIMockedStatic = mockStatic(ConjurAPI.class)) {
+            conjurAPIMockedStatic.when(() -> ConjurAPI.getConfigurationFromContext(item)).thenReturn(configuration);
+            conjurAPIMockedStatic.when(() -> ConjurAPI.isInheritanceOn(item)).thenReturn(false);
+            ConjurCredentialStoreRegistry.put(new ConjurCredentialStoreRegistry.Registration(item, () -> null,
+                    ConjurCustomSuppliers.memoizeWithBackgroundRefresh(() -> {
+                        loads.incrementAndGet();
+                        return ConjurCredentialCatalog.of(List.of(credential));
+                    }, () -> Duration.ofMinutes(1), () -> Duration.ofMinutes(1), Runnable::run)));
+            ConjurCredentialProvider conjurProvider = new ConjurCredentialProvider();
+
+            List<ConjurSecretCredentials> found = conjurProvider.getCredentialsInItem(ConjurSecretCredentials.class, item,
+                    ACL.SYSTEM2, List.of(new ConjurCredentialIdRequirement("db-password")));
+            List<ConjurSecretCredentials> missing = conjurProvider.getCredentialsInItem(ConjurSecretCredentials.class, item,
+                    ACL.SYSTEM2, List.of(new ConjurCredentialIdRequirement("unknown")));
+            List<ConjurSecretCredentials> anonymous = conjurProvider.getCredentialsInItem(ConjurSecretCredentials.class, item,
+                    null, List.of(new ConjurCredentialIdRequirement("db-password")));
+
+            assertEquals(List.of(credential), found);
+            assertTrue(missing.isEmpty());
+            assertTrue(anonymous.isEmpty());
+            assertEquals(1, loads.get());
+        } finally {
+            ConjurCredentialStoreRegistry.clear();
+        }
+    }
+
+    @Test
+    public void testLookupOfUnknownIdSkipsColdCatalogLoad() {
+        Item item = mock(Item.class);
+        ConjurSecretCredentials credential = mock(ConjurSecretCredentials.class);
+        when(credential.getId()).thenReturn("db-password");
+        AtomicInteger loads = new AtomicInteger();
+        ConjurConfiguration configuration = new ConjurConfiguration("https://conjur.example.com", "myConjurAccount");
+        ConjurCredentialStoreRegistry.clear();
+        try (MockedStatic<ConjurAPI> conjurAPIMockedStatic = mockStatic(ConjurAPI.class)) {
+            conjurAPIMockedStatic.when(() -> ConjurAPI.getConfigurationFromContext(item)).thenReturn(configuration);
+            // IDs of a catalog loaded before the registration was replaced
+            ConjurCredentialStoreRegistry.rememberIds(item, ConjurCredentialCatalog.of(List.of(credential)));
+            ConjurCredentialStoreRegistry.put(new ConjurCredentialStoreRegistry.Registration(item, () -> null,
+                    ConjurCustomSuppliers.memoizeWithBackgroundRefresh(() -> {
+                        loads.incrementAndGet();
+                        return ConjurCredentialCatalog.of(List.of(credential));
+                    }, () -> Duration.ofMinutes(1), () -> Duration.ofMinutes(1), Runnable::run)));
+            ConjurCredentialProvider conjurProvider = new ConjurCredentialProvider();
+
+            assertNull(conjurProvider.findInCatalog(item, "github-token"));
+            assertEquals(0, loads.get());
+
+            assertSame(credential, conjurProvider.findInCatalog(item, "db-password"));
+            assertEquals(1, loads.get());
+        } finally {
+            ConjurCredentialStoreRegistry.clear();
+        }
+    }
+
     @Test
     public void testGetDisplayName() {
         ConjurCredentialStore store = new ConjurCredentialStore(provider, mock(ModelObject.class));
@@ -0,0 +1,72 @@
+package org.conjur.jenkins.credentials;
+
+import hudson.model.Item;
+import hudson.model.ModelObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConjurCredentialStoreRegistryTest {
+
+    @Before
+    public void setUp() {
+        ConjurCredentialStoreRegistry.clear();
+    }
+
+    @After
+    public void tearDown() {
+        ConjurCredentialStoreRegistry.clear();
+    }
+
+    @Test
+    public void testRegistrationIsReplacedForNewObjectWithSameName() {
+        Item first = mockItem("folder/job");
+        Item reloaded = mockItem("folder/job");
+
+        ConjurCredentialStoreRegistry.Registration registration = ConjurCredentialStoreRegistry.getOrCreate(first, this::register);
+
+        assertSame(registration, ConjurCredentialStoreRegistry.getOrCreate(first, this::register));
+        assertNotSame(registration, ConjurCredentialStoreRegistry.getOrCreate(reloaded, this::register));
+        assertEquals(1, ConjurCredentialStoreRegistry.size());
+    }
+
+    @Test
+    public void testRemoveItemRemovesDescendants() {
+        ConjurCredentialStoreRegistry.getOrCreate(mockItem("folder"), this::register);
+        ConjurCredentialStoreRegistry.getOrCreate(mockItem("folder/job"), this::register);
+        ConjurCredentialStoreRegistry.getOrCreate(mockItem("folder2"), this::register);
+
+        ConjurCredentialStoreRegistry.removeItem("folder");
+
+        assertEquals(1, ConjurCredentialStoreRegistry.size());
+        assertTrue(ConjurCredentialStoreRegistry.getSuppliers().containsKey("item:folder2"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedStoreAccessorsUseRegistry() {
+        Item item = mockItem("folder/job");
+        ConjurCredentialStore store = new ConjurCredentialStore(null, item);
+
+        ConjurCredentialStore.putCredentialStore(String.valueOf(item.hashCode()), store);
+
+        assertTrue(ConjurCredentialStore.isStoreContainsKey("item:folder/job"));
+        assertTrue(ConjurCredentialStore.isStoreContainsKey(String.valueOf(item.hashCode())));
+        assertSame(store, ConjurCredentialStore.getCredentialStore(String.valueOf(item.hashCode())));
+        assertFalse(ConjurCredentialStore.isStoreContainsKey("item:folder2"));
+        assertNull(ConjurCredentialStore.getCredentialStore("item:folder2"));
+    }
+
+    private ConjurCredentialStoreRegistry.Registration register(ModelObject context) {
+        return new ConjurCredentialStoreRegistry.Registration(context, () -> null, () -> ConjurCredentialCatalog.EMPTY);
+    }
+
+    private static Item mockItem(String fullName) {
+        Item item = mock(Item.class);
+        when(item.getFullName()).thenReturn(fullName);
+        return item;
+    }
+}
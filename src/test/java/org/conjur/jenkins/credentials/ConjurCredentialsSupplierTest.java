@@ -96,6 +96,22 @@ public class ConjurCredentialsSupplierTest {
         }
     }
 
+    @Test
+    public void testLoadThrowsWhenConjurAPIFails() {
+        ConjurCredentialsSupplier supplier = (ConjurCredentialsSupplier) ConjurCredentialsSupplier.standard(mockContext);
+        try (MockedStatic<ConjurAPI> conjurApiMock = mockStatic(ConjurAPI.class)) {
+            conjurApiMock.when(() ->
+                    ConjurAPI.getCredentialsForContext(StandardCredentials.class, mockContext)
+            ).thenThrow(new RuntimeException("Test failure"));
+            assertThrows(IllegalStateException.class, supplier::load);
+
+            conjurApiMock.when(() ->
+                    ConjurAPI.getCredentialsForContext(StandardCredentials.class, mockContext)
+            ).thenReturn(null);
+            assertThrows(IllegalStateException.class, supplier::load);
+        }
+    }
+
     static class TestLogHandler extends Handler {
         private final StringBuilder logMessages = new StringBuilder();
 
@@ -6,6 +6,10 @@ import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.mockito.MockedStatic;
 
 import static org.junit.Assert.*;
@@ -29,8 +33,8 @@ public class JwtAuthenticationServiceImplTest {
         when(extensionListMock.get(GlobalConjurConfiguration.class)).thenReturn(mockConfig);
         JSONObject mockJwkSet = new JSONObject();
         mockJwkSet.put("key", "value");
-        MockedStatic<JwtToken> jwtTokenMockedStatic = mockStatic(JwtToken.class);
-        jwtTokenMockedStatic.when(JwtToken::getJwkset).thenReturn(mockJwkSet);
+        MockedStatic<JwtKeyRing> jwtKeyRingMockedStatic = mockStatic(JwtKeyRing.class);
+        jwtKeyRingMockedStatic.when(JwtKeyRing::publishedJwks).thenReturn(new JwtKeyRing.Jwks(mockJwkSet.toString(4), true));
 
         String result = service.getJwkSet();
 
@@ -39,7 +43,7 @@ public class JwtAuthenticationServiceImplTest {
         assertTrue(result.contains("\"value\""));
 
         globalConfigMockedStatic.close();
-        jwtTokenMockedStatic.close();
+        jwtKeyRingMockedStatic.close();
     }
 
     @Test
@@ -73,8 +77,8 @@ public class JwtAuthenticationServiceImplTest {
         MockedStatic<GlobalConfiguration> globalConfigMockedStatic = mockStatic(GlobalConfiguration.class);
         globalConfigMockedStatic.when(GlobalConfiguration::all).thenReturn(extensionListMock);
         when(extensionListMock.get(GlobalConjurConfiguration.class)).thenReturn(mockConfig);
-        MockedStatic<JwtToken> jwtTokenMockedStatic = mockStatic(JwtToken.class);
-        jwtTokenMockedStatic.when(JwtToken::getJwkset)
+        MockedStatic<JwtKeyRing> jwtKeyRingMockedStatic = mockStatic(JwtKeyRing.class);
+        jwtKeyRingMockedStatic.when(JwtKeyRing::publishedJwks)
                 .thenThrow(new RuntimeException("Simulated exception"));
 
         String result = service.getJwkSet();
@@ -82,7 +86,37 @@ public class JwtAuthenticationServiceImplTest {
         assertNull(result);
 
         globalConfigMockedStatic.close();
-        jwtTokenMockedStatic.close();
+        jwtKeyRingMockedStatic.close();
     }
 
+    @Test
+    public void testGetJwkSetReturnsNotModifiedForMatchingEtag() throws Exception {
+        GlobalConjurConfiguration mockConfig = mock(GlobalConjurConfiguration.class);
+        ExtensionList<GlobalConfiguration> extensionListMock = mock(ExtensionList.class);
+        StaplerRequest request = mock(StaplerRequest.class);
+        StaplerResponse response = mock(StaplerResponse.class);
+        JwtKeyRing.Jwks jwks = new JwtKeyRing.Jwks("{\"keys\": []}", true);
+        when(extensionListMock.get(GlobalConjurConfiguration.class)).thenReturn(mockConfig);
+        when(request.getHeader("If-None-Match")).thenReturn(jwks.getEtag());
+
+        try (MockedStatic<GlobalConfiguration> globalConfigMockedStatic = mockStatic(GlobalConfiguration.class);
+             MockedStatic<JwtKeyRing> jwtKeyRingMockedStatic = mockStatic(JwtKeyRing.class);
+             MockedStatic<Stapler> staplerMockedStatic = mockStatic(Stapler.class)) {
+            globalConfigMockedStatic.when(GlobalConfiguration::all).thenReturn(extensionListMock);
+            jwtKeyRingMockedStatic.when(JwtKeyRing::publishedJwks).thenReturn(jwks);
+            staplerMockedStatic.when(Stapler::getCurrentRequest).thenReturn(request);
+            staplerMockedStatic.when(Stapler::getCurrentResponse).thenReturn(response);
+
+            assertThrows(HttpResponses.HttpResponseException.class, () -> service.getJwkSet());
+            verify(response).setHeader("ETag", jwks.getEtag());
+        }
+    }
+
+    @Test
+    public void testEtagMatches() {
+        assertTrue(JwtAuthenticationServiceImpl.etagMatches("W/\"abc\", \"def\"", "\"abc\""));
+        assertTrue(JwtAuthenticationServiceImpl.etagMatches("*", "\"abc\""));
+        assertFalse(JwtAuthenticationServiceImpl.etagMatches("\"def\"", "\"abc\""));
+        assertFalse(JwtAuthenticationServiceImpl.etagMatches(null, "\"abc\""));
+    }
 }
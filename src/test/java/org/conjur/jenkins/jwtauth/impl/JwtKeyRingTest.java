@@ -0,0 +1,62 @@
+package org.conjur.jenkins.jwtauth.impl;
+
+import org.conjur.jenkins.configuration.GlobalConjurConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JwtKeyRingTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Before
+    public void setUp() {
+        JwtKeyRing.clear();
+    }
+
+    @After
+    public void tearDown() {
+        JwtKeyRing.clear();
+    }
+
+    @Test
+    public void testMaintainDoesNotGenerateKeysWhenJwtIsUnused() {
+        GlobalConjurConfiguration.get().setSelectAuthenticator("APIKey");
+
+        JwtKeyRing.maintain();
+
+        assertEquals(0, JwtKeyRing.publishedKeys().size());
+    }
+
+    @Test
+    public void testMaintainPublishesKeyBeforeItIsUsed() {
+        GlobalConjurConfiguration.get().setSelectAuthenticator("JWT");
+
+        JwtKeyRing.maintain();
+
+        List<JwtRsaDigitalSignatureKey> published = JwtKeyRing.publishedKeys();
+        assertEquals(1, published.size());
+        assertNotNull(published.get(0).getPublicKey());
+
+        JwtRsaDigitalSignatureKey key = JwtKeyRing.signingKey(System.currentTimeMillis() / 1000 + 120);
+        assertSame(published.get(0), key);
+    }
+
+    @Test
+    public void testSigningKeyIsReusedWhileValid() {
+        long expiration = System.currentTimeMillis() / 1000 + 120;
+
+        JwtRsaDigitalSignatureKey first = JwtKeyRing.signingKey(expiration);
+        JwtRsaDigitalSignatureKey second = JwtKeyRing.signingKey(expiration);
+
+        assertSame(first, second);
+        assertEquals(1, JwtKeyRing.publishedKeys().size());
+    }
+}
@@ -20,6 +20,14 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -179,5 +187,70 @@ public class JwtTokenTest {
         }
     }
 
-}
+    @Test
+    public void testSignedTokenIsReusedWithinReuseWindow() {
+        JwtToken.invalidateSignedTokens();
+        when(globalConfigMock.getJwtReusePercentage()).thenReturn(50);
+        when(globalConfigMock.getTokenDurationInSeconds()).thenReturn(600L);
+
+        String token = JwtToken.getToken("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock);
+
+        assertNotNull(token);
+        assertEquals(token, JwtToken.getToken("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock));
+        assertNotEquals(token, JwtToken.getToken("OtherAction", jenkinsRule.jenkins, globalConfigMock));
+        JwtToken.invalidateSignedTokens();
+    }
+
+    @Test
+    public void testTokenIsSignedAgainAfterReuseWindow() throws Exception {
+        JwtToken.invalidateSignedTokens();
+        // 1% of one second, the token is reused for 10 ms
+        when(globalConfigMock.getJwtReusePercentage()).thenReturn(1);
+        when(globalConfigMock.getTokenDurationInSeconds()).thenReturn(1L);
+
+        String token = JwtToken.getToken("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock);
+        Thread.sleep(20);
+
+        assertNotNull(token);
+        assertNotEquals(token, JwtToken.getToken("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock));
+        JwtToken.invalidateSignedTokens();
+    }
+
+    @Test
+    public void testConcurrentSigningDoesNotTakeClassLock() throws Exception {
+        when(globalConfigMock.getJwtReusePercentage()).thenReturn(0);
+        when(globalConfigMock.getTokenDurationInSeconds()).thenReturn(600L);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            // signing used to be serialized on the class, it must not wait for a lock held elsewhere
+            synchronized (JwtToken.class) {
+                for (int i = 0; i < 8; i++) {
+                    tokens.add(executor.submit(() -> JwtToken.getToken("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock)));
+                }
+                Set<String> distinct = new HashSet<>();
+                for (Future<String> token : tokens) {
+                    distinct.add(token.get(30, TimeUnit.SECONDS));
+                }
+                assertEquals(8, distinct.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSignedTokenKeyWhenReuseDisabled() {
+        when(globalConfigMock.getJwtReusePercentage()).thenReturn(0);
+
+        assertNull(JwtToken.signedTokenKey("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock));
+    }
+
+    @Test
+    public void testSignedTokenKeyForUnsupportedContext() {
+        when(globalConfigMock.getJwtReusePercentage()).thenReturn(50);
 
+        assertNull(JwtToken.signedTokenKey("SecretRetrieval", "secretId", globalConfigMock));
+        assertNotNull(JwtToken.signedTokenKey("SecretRetrieval", jenkinsRule.jenkins, globalConfigMock));
+    }
+}